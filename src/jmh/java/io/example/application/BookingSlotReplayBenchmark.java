@@ -0,0 +1,118 @@
+package io.example.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.example.domain.BookingEvent;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.Timeslot;
+
+// Measures the recovery of a BookingSlotEntity: folding a journal of N
+// events into a Timeslot, exactly as BookingSlotEntity.applyEvent does. The
+// journal is dominated by availability churn, with a booking (and sometimes
+// its cancellation) every few events.
+//
+// Bookings and cancellations are journaled as BookingCreated/BookingCanceled,
+// except for perParticipantPercent of them, which use the per-participant
+// events that slots booked before the aggregate events still hold.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingSlotReplayBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int journalLength;
+
+  @Param({"0", "50"})
+  public int perParticipantPercent;
+
+  private List<BookingEvent> journal;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    var participants = Math.max(3, journalLength / 10);
+    journal = new ArrayList<>(journalLength);
+    var bookings = new ArrayList<BookingEvent.BookingCreated>();
+    while (journal.size() < journalLength) {
+      int i = random.nextInt(participants);
+      switch (random.nextInt(6)) {
+        case 0, 1 -> journal.add(new BookingEvent.ParticipantMarkedAvailable("slot", "student-" + i,
+            ParticipantType.STUDENT));
+        case 2 -> journal.add(new BookingEvent.ParticipantUnmarkedAvailable("slot", "student-" + i,
+            ParticipantType.STUDENT));
+        case 3, 4 -> {
+          var created = new BookingEvent.BookingCreated("slot", "booking-" + bookings.size(), "student-" + i,
+              "instructor-" + i, "aircraft-" + i);
+          bookings.add(created);
+          if (random.nextInt(100) < perParticipantPercent) {
+            journal.addAll(created.participantEvents());
+          } else {
+            journal.add(created);
+          }
+        }
+        default -> {
+          if (!bookings.isEmpty()) {
+            var booked = bookings.get(random.nextInt(bookings.size()));
+            var canceled = new BookingEvent.BookingCanceled("slot", booked.bookingId(), booked.studentId(),
+                booked.instructorId(), booked.aircraftId());
+            if (random.nextInt(100) < perParticipantPercent) {
+              journal.addAll(canceled.participantEvents());
+            } else {
+              journal.add(canceled);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public Timeslot replayJournal() {
+    Timeslot state = Timeslot.empty();
+    for (BookingEvent event : journal) {
+      state = state.apply(event);
+    }
+    return state;
+  }
+
+  // The participant slot IDs SlotToParticipantConsumer dispatches to, with
+  // aggregate events split into their per-participant events as it does
+  @Benchmark
+  public int participantSlotIds() {
+    int total = 0;
+    for (BookingEvent event : journal) {
+      total += switch (event) {
+        case BookingEvent.BookingCreated created -> participantSlotIdLengths(created.participantEvents());
+        case BookingEvent.BookingCanceled canceled -> participantSlotIdLengths(canceled.participantEvents());
+        default -> SlotToParticipantConsumer.participantSlotId(event).length();
+      };
+    }
+    return total;
+  }
+
+  private static int participantSlotIdLengths(List<? extends BookingEvent> events) {
+    int total = 0;
+    for (BookingEvent event : events) {
+      total += SlotToParticipantConsumer.participantSlotId(event).length();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,77 @@
+package io.example.domain;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import akka.javasdk.JsonSupport;
+import io.example.domain.Participant.ParticipantType;
+
+// Compares the cost of (de)serializing a ParticipantBooked event, the most
+// frequent event in a busy journal, in the compact format against the
+// original one with full field names. The serialized size of both formats is
+// printed once at setup, as bytes per event.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+  // The event as it was persisted before CompactEventMigration
+  public record LegacyParticipantBooked(
+      String slotId, String participantId, ParticipantType participantType, String bookingId) {
+  }
+
+  private ObjectMapper mapper;
+  private BookingEvent.ParticipantBooked compact;
+  private LegacyParticipantBooked legacy;
+  private byte[] compactBytes;
+  private byte[] legacyBytes;
+
+  @Setup
+  public void setUp() throws IOException {
+    mapper = JsonSupport.getObjectMapper();
+    String slotId = "2025-08-08-09";
+    String participantId = "3f2c1e9a-5d4b-4c7e-9a1f-2b8d6e0c7a51";
+    String bookingId = "8d1e7f3a-2c9b-4a6d-b5e0-1f4c3a9d2e87";
+    compact = new BookingEvent.ParticipantBooked(slotId, participantId, ParticipantType.INSTRUCTOR, bookingId);
+    legacy = new LegacyParticipantBooked(slotId, participantId, ParticipantType.INSTRUCTOR, bookingId);
+    compactBytes = mapper.writeValueAsBytes(compact);
+    legacyBytes = mapper.writeValueAsBytes(legacy);
+    System.out.printf("%nbytes/event: legacy=%d compact=%d%n", legacyBytes.length, compactBytes.length);
+  }
+
+  @Benchmark
+  public byte[] serializeLegacy() throws IOException {
+    return mapper.writeValueAsBytes(legacy);
+  }
+
+  @Benchmark
+  public byte[] serializeCompact() throws IOException {
+    return mapper.writeValueAsBytes(compact);
+  }
+
+  @Benchmark
+  public LegacyParticipantBooked deserializeLegacy() throws IOException {
+    return mapper.readValue(legacyBytes, LegacyParticipantBooked.class);
+  }
+
+  @Benchmark
+  public BookingEvent.ParticipantBooked deserializeCompact() throws IOException {
+    return mapper.readValue(compactBytes, BookingEvent.ParticipantBooked.class);
+  }
+}
@@ -0,0 +1,91 @@
+package io.example.domain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.example.domain.Participant.ParticipantType;
+
+// Measures the Timeslot operations applied for every booking event and
+// every booking command, on slots of increasing size. A slot of size N holds
+// N available participants of each type plus N bookings.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeslotBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int slotSize;
+
+  private Timeslot slot;
+  private BookingEvent.ParticipantMarkedAvailable newlyAvailable;
+  private BookingEvent.ParticipantUnmarkedAvailable existingUnavailable;
+  private BookingEvent.ParticipantBooked booked;
+  private String existingBookingId;
+
+  @Setup
+  public void setUp() {
+    slot = Timeslot.empty();
+    for (int i = 0; i < slotSize; i++) {
+      slot = slot.reserve(new BookingEvent.ParticipantMarkedAvailable("slot", "student-" + i, ParticipantType.STUDENT))
+          .reserve(new BookingEvent.ParticipantMarkedAvailable("slot", "instructor-" + i, ParticipantType.INSTRUCTOR))
+          .reserve(new BookingEvent.ParticipantMarkedAvailable("slot", "aircraft-" + i, ParticipantType.AIRCRAFT));
+    }
+    for (int i = 0; i < slotSize; i++) {
+      String bookingId = "booking-" + i;
+      slot = slot.book(new BookingEvent.ParticipantBooked("slot", "booked-student-" + i, ParticipantType.STUDENT,
+          bookingId))
+          .book(new BookingEvent.ParticipantBooked("slot", "booked-instructor-" + i, ParticipantType.INSTRUCTOR,
+              bookingId))
+          .book(new BookingEvent.ParticipantBooked("slot", "booked-aircraft-" + i, ParticipantType.AIRCRAFT,
+              bookingId));
+    }
+    newlyAvailable = new BookingEvent.ParticipantMarkedAvailable("slot", "student-new", ParticipantType.STUDENT);
+    existingUnavailable = new BookingEvent.ParticipantUnmarkedAvailable("slot", "student-0", ParticipantType.STUDENT);
+    booked = new BookingEvent.ParticipantBooked("slot", "student-1", ParticipantType.STUDENT, "booking-new");
+    existingBookingId = "booking-" + (slotSize / 2);
+  }
+
+  @Benchmark
+  public Timeslot reserve() {
+    return slot.reserve(newlyAvailable);
+  }
+
+  @Benchmark
+  public Timeslot unreserve() {
+    return slot.unreserve(existingUnavailable);
+  }
+
+  @Benchmark
+  public Timeslot book() {
+    return slot.book(booked);
+  }
+
+  @Benchmark
+  public Timeslot cancelBooking() {
+    return slot.cancelBooking(existingBookingId);
+  }
+
+  @Benchmark
+  public Object findBooking() {
+    return slot.findBooking(existingBookingId);
+  }
+
+  @Benchmark
+  public boolean isBookable() {
+    return slot.isBookable("student-2", "aircraft-2", "instructor-2");
+  }
+}
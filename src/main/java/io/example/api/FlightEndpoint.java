@@ -1,13 +1,30 @@
 package io.example.api;
 
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpHeader;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.http.javadsl.model.headers.RawHeader;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Delete;
 import akka.javasdk.annotations.http.Get;
@@ -17,10 +34,18 @@ import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
+import io.example.application.BookableSlotsView;
+import io.example.application.BookingRejectionCache;
 import io.example.application.BookingSlotEntity;
+import io.example.application.MultiSlotBookingWorkflow;
+import io.example.application.ParticipantCalendarEntity;
 import io.example.application.ParticipantSlotsView;
+import io.example.application.ShardedSlotBooking;
+import io.example.application.SlotBooking;
+import io.example.application.SlotAvailabilityView;
+import io.example.application.SlotResponseCache;
+import io.example.application.SlotShardEntity;
 import io.example.application.BookingSlotEntity.Command;
-import io.example.application.ParticipantSlotsView.SlotList;
 import io.example.domain.Participant.ParticipantAvailabilityStatus;
 import io.example.domain.Participant.ParticipantType;
 import io.example.domain.Participant;
@@ -31,111 +56,615 @@ import io.example.domain.Timeslot;
 public class FlightEndpoint extends AbstractHttpEndpoint {
   private final Logger log = LoggerFactory.getLogger(FlightEndpoint.class);
 
+  // Upper bound on the number of items accepted by a single batch request
+  private static final int MAX_BATCH_SIZE = 1000;
+  // Number of batch items sent to their entities concurrently
+  private static final int BATCH_PARALLELISM = 16;
+  // Page sizes of the paginated slot queries
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int DEFAULT_UPCOMING_LIMIT = 10;
+  private static final int MAX_STREAMED_SLOTS = 100;
+  private static final int MAX_RECURRING_SLOTS = 100;
+
   private final ComponentClient componentClient;
+  private final Materializer materializer;
+  private final BookingRejectionCache rejectionCache = BookingRejectionCache.shared();
+  private final SlotResponseCache slotResponseCache = SlotResponseCache.shared();
+  private final SlotBooking slotBooking;
+  private final ShardedSlotBooking shardedBooking;
 
-  public FlightEndpoint(ComponentClient componentClient) {
+  public FlightEndpoint(ComponentClient componentClient, Materializer materializer) {
     this.componentClient = componentClient;
+    this.materializer = materializer;
+    this.slotBooking = new SlotBooking(componentClient);
+    this.shardedBooking = new ShardedSlotBooking(componentClient);
   }
 
   // Creates a new booking. All three identified participants will
   // be considered booked for the given timeslot, if they are all
-  // "available" at the time of booking.
+  // "available" at the time of booking and none of them is booked in an
+  // overlapping slot (see SlotBooking).
+  // Requests naming a participant that was recently booked or withdrawn from
+  // the slot are rejected straight away, without asking the entity.
   @Post("/bookings/{slotId}")
-  public HttpResponse createBooking(String slotId, BookingRequest request) {
+  public CompletionStage<HttpResponse> createBooking(String slotId, BookingRequest request) {
     log.info("Creating booking for slot {}: {}", slotId, request);
 
-    // Implementation here
-    var command = request.toCommand();
-    componentClient
-        .forEventSourcedEntity(slotId)
-        .method(BookingSlotEntity::bookSlot)
-        .invoke(command);
+    if (request.participants().stream()
+        .anyMatch(participant -> rejectionCache.isKnownUnavailable(slotId, participant, request.bookingId()))) {
+      log.info("Booking for slot {} rejected from cache", slotId);
+      return CompletableFuture.completedFuture(HttpResponses.badRequest(BookingSlotEntity.PARTICIPANTS_UNAVAILABLE));
+    }
+
+    return slotBooking.book(slotId, request.toCommand())
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(slotId))
+        .thenApply(done -> HttpResponses.created())
+        .exceptionally(this::toErrorResponse);
+  }
 
-    return HttpResponses.created();
+  // Retrieves the booked slots of a participant overlapping [from, to),
+  // ordered by start time, from its calendar entity
+  @Get("/calendar/{participantId}")
+  public CompletionStage<HttpResponse> participantCalendar(String participantId) {
+    var from = instantParam("from").orElseThrow(() -> HttpException.badRequest("from is required"));
+    var to = instantParam("to").orElseThrow(() -> HttpException.badRequest("to is required"));
+    if (!from.isBefore(to)) {
+      throw HttpException.badRequest("from must be before to");
+    }
+
+    return componentClient
+        .forEventSourcedEntity(participantId)
+        .method(ParticipantCalendarEntity::getSchedule)
+        .invokeAsync(new ParticipantCalendarEntity.Commands.GetSchedule(from, to))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
   }
 
   // Cancels an existing booking. Note that both the slot
   // ID and the booking ID are required.
   @Delete("/bookings/{slotId}/{bookingId}")
-  public HttpResponse cancelBooking(String slotId, String bookingId) {
+  public CompletionStage<HttpResponse> cancelBooking(String slotId, String bookingId) {
     log.info("Canceling booking id {}", bookingId);
 
-    componentClient
+    return componentClient
         .forEventSourcedEntity(slotId)
         .method(BookingSlotEntity::cancelBooking)
-        .invoke(bookingId);
-
-    return HttpResponses.ok();
+        .invokeAsync(bookingId)
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(slotId))
+        .thenApply(done -> HttpResponses.ok())
+        .exceptionally(this::toErrorResponse);
   }
 
   // Retrieves all slots in which a given participant has the supplied status.
   // Used to retrieve bookings and slots in which the participant is available
   @Get("/slots/{participantId}/{status}")
-  public SlotList slotsByStatus(String participantId, String status) {
+  public CompletionStage<HttpResponse> slotsByStatus(String participantId, String status) {
 
-    var validStatusOptions = EnumSet.allOf(ParticipantAvailabilityStatus.class).stream().map(s -> s.getValue())
-        .collect(Collectors.toSet());
+    return componentClient
+        .forView()
+        .method(ParticipantSlotsView::getSlotsByParticipantAndStatus)
+        .invokeAsync(new ParticipantSlotsView.ParticipantStatusInput(participantId, parseStatus(status)))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
 
-    if (!validStatusOptions.contains(status.trim().toLowerCase())) {
-      throw HttpException.badRequest(status + " is an invalid status");
+  // Retrieves one page of all slots of a participant, whatever their status.
+  // Pass the returned nextPageToken as `pageToken` to get the following page.
+  @Get("/slots/{participantId}")
+  public CompletionStage<HttpResponse> slotPage(String participantId) {
+
+    return componentClient
+        .forView()
+        .method(ParticipantSlotsView::getSlotPageByParticipant)
+        .invokeAsync(new ParticipantSlotsView.ParticipantPageInput(participantId, pageToken(), pageSize()))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Retrieves one page of the slots in which a participant has the supplied status
+  @Get("/slots/{participantId}/{status}/page")
+  public CompletionStage<HttpResponse> slotPageByStatus(String participantId, String status) {
+
+    return componentClient
+        .forView()
+        .method(ParticipantSlotsView::getSlotPageByParticipantAndStatus)
+        .invokeAsync(new ParticipantSlotsView.ParticipantStatusPageInput(
+            participantId, parseStatus(status), pageToken(), pageSize()))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Retrieves the slots with the supplied status that start within [from, to),
+  // ordered by start time. `from` and `to` are ISO-8601 instants, e.g.
+  // 2025-08-04T00:00:00Z. Only slots whose ID encodes a start time match.
+  @Get("/slots/{participantId}/{status}/between")
+  public CompletionStage<HttpResponse> slotsBetween(String participantId, String status) {
+    var from = instantParam("from").orElseThrow(() -> HttpException.badRequest("from is required"));
+    var to = instantParam("to").orElseThrow(() -> HttpException.badRequest("to is required"));
+    if (!from.isBefore(to)) {
+      throw HttpException.badRequest("from must be before to");
     }
 
     return componentClient
         .forView()
-        .method(ParticipantSlotsView::getSlotsByParticipantAndStatus)
-        .invoke(new ParticipantSlotsView.ParticipantStatusInput(participantId, status.trim().toLowerCase()));
+        .method(ParticipantSlotsView::getSlotsByParticipantBetween)
+        .invokeAsync(new ParticipantSlotsView.ParticipantTimeRangeInput(participantId, parseStatus(status), from, to))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Retrieves the next `limit` (default 10) slots with the supplied status
+  // starting at or after `from` (default now), ordered by start time.
+  @Get("/slots/{participantId}/{status}/upcoming")
+  public CompletionStage<HttpResponse> upcomingSlots(String participantId, String status) {
+    var from = instantParam("from").orElseGet(Instant::now);
+    int limit = requestContext().queryParams().getInteger("limit").orElse(DEFAULT_UPCOMING_LIMIT);
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw HttpException.badRequest("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+
+    return componentClient
+        .forView()
+        .method(ParticipantSlotsView::getUpcomingSlotsByParticipant)
+        .invokeAsync(new ParticipantSlotsView.UpcomingSlotsInput(participantId, parseStatus(status), from, limit))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Streams the slots in which a participant has the supplied status as
+  // server-sent events, one slot row per event, so the response is never
+  // held in memory as a whole.
+  @Get("/slots/{participantId}/{status}/stream")
+  public HttpResponse streamSlotsByStatus(String participantId, String status) {
+    var slots = componentClient
+        .forView()
+        .stream(ParticipantSlotsView::streamSlotsByParticipantAndStatus)
+        .source(new ParticipantSlotsView.ParticipantStatusInput(participantId, parseStatus(status)));
+
+    return HttpResponses.serverSentEvents(slots);
+  }
+
+  // Pushes participant slot rows for the comma-separated `slotIds` as
+  // server-sent events: first their current state, then every change as the
+  // view picks it up. Replaces polling GET /availability/{slotId}.
+  @Get("/changes/slots")
+  public HttpResponse streamSlotChanges() {
+    var slotIds = requestContext().queryParams().getString("slotIds").stream()
+        .flatMap(ids -> Arrays.stream(ids.split(",")))
+        .map(String::trim)
+        .filter(id -> !id.isEmpty())
+        .distinct()
+        .toList();
+    if (slotIds.isEmpty() || slotIds.size() > MAX_STREAMED_SLOTS) {
+      throw HttpException.badRequest("slotIds must list between 1 and " + MAX_STREAMED_SLOTS + " slot IDs");
+    }
+
+    var changes = componentClient
+        .forView()
+        .stream(ParticipantSlotsView::streamSlotChanges)
+        .source(new ParticipantSlotsView.SlotIdsInput(slotIds));
+
+    return HttpResponses.serverSentEvents(changes);
+  }
+
+  // Pushes the participant's slot rows as server-sent events: first their
+  // current state, then every change as the view picks it up
+  @Get("/changes/participants/{participantId}")
+  public HttpResponse streamParticipantChanges(String participantId) {
+    var changes = componentClient
+        .forView()
+        .stream(ParticipantSlotsView::streamParticipantSlotChanges)
+        .source(participantId);
+
+    return HttpResponses.serverSentEvents(changes);
   }
 
-  // Returns the internal availability state for a given slot
+  // Returns the internal availability state for a given slot. Responses are
+  // served from SlotResponseCache when possible and carry an ETag; a request
+  // whose If-None-Match matches the current version gets a 304.
   @Get("/availability/{slotId}")
-  public Timeslot getSlot(String slotId) {
+  public CompletionStage<HttpResponse> getSlot(String slotId) {
+    var ifNoneMatch = requestContext().requestHeader("If-None-Match").map(HttpHeader::value);
+
+    var cached = slotResponseCache.get(slotId);
+    if (cached.isPresent()) {
+      return CompletableFuture.completedFuture(slotResponse(cached.get(), ifNoneMatch));
+    }
 
+    var readStartedAt = slotResponseCache.invalidationCount();
     return componentClient
         .forEventSourcedEntity(slotId)
-        .method(BookingSlotEntity::getSlot)
-        .invoke();
+        .method(BookingSlotEntity::getVersionedSlot)
+        .invokeAsync()
+        .thenApply(versioned -> {
+          if (ifNoneMatch.filter(SlotResponseCache.etagOf(versioned.version())::equals).isPresent()) {
+            return notModified(SlotResponseCache.etagOf(versioned.version()));
+          }
+          var slot = new SlotResponseCache.CachedSlot(versioned.version(), toJson(versioned.slot()));
+          slotResponseCache.put(slotId, slot, readStartedAt);
+          return slotResponse(slot, ifNoneMatch);
+        })
+        .exceptionally(this::toErrorResponse);
   }
 
-  // Indicates that the supplied participant is available for booking
-  // within the indicated time slot
-  @Post("/availability/{slotId}")
-  public HttpResponse markAvailable(String slotId, AvailabilityRequest request) {
-    ParticipantType participantType;
+  private static HttpResponse slotResponse(SlotResponseCache.CachedSlot slot, Optional<String> ifNoneMatch) {
+    if (ifNoneMatch.filter(slot.etag()::equals).isPresent()) {
+      return notModified(slot.etag());
+    }
+    return HttpResponses.of(StatusCodes.OK, ContentTypes.APPLICATION_JSON, slot.json())
+        .addHeader(RawHeader.create("ETag", slot.etag()));
+  }
 
+  private static HttpResponse notModified(String etag) {
+    return HttpResponse.create().withStatus(StatusCodes.NOT_MODIFIED).addHeader(RawHeader.create("ETag", etag));
+  }
+
+  private static byte[] toJson(Timeslot slot) {
     try {
-      participantType = ParticipantType.valueOf(request.participantType().trim().toUpperCase());
-    } catch (IllegalArgumentException ex) {
-      log.warn("Bad participant type {}", request.participantType());
-      throw HttpException.badRequest("invalid participant type");
+      return JsonSupport.getObjectMapper().writeValueAsBytes(slot);
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // Searches the slots starting within [from, to) where the student, an
+  // instructor and an aircraft are all still available. With `instructorId`
+  // only slots where that instructor is available are returned.
+  @Get("/bookable/{studentId}")
+  public CompletionStage<HttpResponse> bookableSlots(String studentId) {
+    var from = instantParam("from").orElseThrow(() -> HttpException.badRequest("from is required"));
+    var to = instantParam("to").orElseThrow(() -> HttpException.badRequest("to is required"));
+    if (!from.isBefore(to)) {
+      throw HttpException.badRequest("from must be before to");
     }
+    var instructorId = requestContext().queryParams().getString("instructorId");
+
+    var search = instructorId.isPresent()
+        ? componentClient
+            .forView()
+            .method(BookableSlotsView::findBookableSlotsWithInstructor)
+            .invokeAsync(new BookableSlotsView.StudentInstructorSearchInput(studentId, instructorId.get(), from, to))
+        : componentClient
+            .forView()
+            .method(BookableSlotsView::findBookableSlots)
+            .invokeAsync(new BookableSlotsView.StudentSearchInput(studentId, from, to));
+
+    return search
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Lists the participants of the supplied type currently available in the
+  // slot. Served from SlotAvailabilityView rather than the slot entity, so it
+  // may briefly lag behind the latest availability changes.
+  @Get("/availability/{slotId}/{participantType}")
+  public CompletionStage<HttpResponse> availableParticipants(String slotId, String participantType) {
+    ParticipantType type = parseParticipantType(participantType);
+
+    return componentClient
+        .forView()
+        .method(SlotAvailabilityView::getAvailableParticipants)
+        .invokeAsync(new SlotAvailabilityView.SlotTypeInput(slotId, type))
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Indicates that the supplied participant is available for booking
+  // within the indicated time slot
+  @Post("/availability/{slotId}")
+  public CompletionStage<HttpResponse> markAvailable(String slotId, AvailabilityRequest request) {
+    ParticipantType participantType = parseParticipantType(request.participantType());
 
     log.info("Marking timeslot available for entity {}", slotId);
 
-    componentClient
+    var participant = new Participant(request.participantId(), participantType);
+    return componentClient
         .forEventSourcedEntity(slotId)
         .method(BookingSlotEntity::markSlotAvailable)
-        .invoke(new Command.MarkSlotAvailable(new Participant(request.participantId(), participantType)));
-
-    return HttpResponses.ok();
+        .invokeAsync(new Command.MarkSlotAvailable(participant))
+        .whenComplete((done, ex) -> {
+          slotResponseCache.invalidate(slotId);
+          rejectionCache.invalidate(slotId, participant);
+        })
+        .thenApply(done -> HttpResponses.ok())
+        .exceptionally(this::toErrorResponse);
   }
 
   // Unmarks a slot as available for the given participant.
   @Delete("/availability/{slotId}")
-  public HttpResponse unmarkAvailable(String slotId, AvailabilityRequest request) {
+  public CompletionStage<HttpResponse> unmarkAvailable(String slotId, AvailabilityRequest request) {
+    ParticipantType participantType = parseParticipantType(request.participantType());
+
+    return componentClient
+        .forEventSourcedEntity(slotId)
+        .method(BookingSlotEntity::unmarkSlotAvailable)
+        .invokeAsync(new Command.UnmarkSlotAvailable(new Participant(request.participantId(), participantType)))
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(slotId))
+        .thenApply(done -> HttpResponses.ok())
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Sharded availability for hot slots: marks, unmarks and bookings go
+  // through one SlotShardEntity per participant type instead of a single
+  // BookingSlotEntity, so availability writes to the slot scale out. A slot
+  // uses either these routes or the regular ones, never both: the first
+  // sharded mark switches the slot to sharded availability, after which its
+  // BookingSlotEntity rejects regular marks and bookings. Sharded
+  // availability is only visible here, not in GET /availability/{slotId} or
+  // the bookable-slots search.
+  @Post("/sharded/availability/{slotId}")
+  public CompletionStage<HttpResponse> markAvailableSharded(String slotId, AvailabilityRequest request) {
+    var participant = new Participant(request.participantId(), parseParticipantType(request.participantType()));
+
+    return shardedBooking.markAvailable(slotId, participant)
+        .thenApply(done -> HttpResponses.ok())
+        .exceptionally(this::toErrorResponse);
+  }
+
+  @Delete("/sharded/availability/{slotId}")
+  public CompletionStage<HttpResponse> unmarkAvailableSharded(String slotId, AvailabilityRequest request) {
+    var participant = new Participant(request.participantId(), parseParticipantType(request.participantType()));
+
+    return shardedBooking.unmarkAvailable(slotId, participant)
+        .thenApply(done -> HttpResponses.ok())
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Returns the bookings of a sharded slot together with the availability
+  // held by its shards
+  @Get("/sharded/availability/{slotId}")
+  public CompletionStage<HttpResponse> getShardedSlot(String slotId) {
+    var shards = Arrays.stream(ParticipantType.values())
+        .map(type -> componentClient
+            .forEventSourcedEntity(SlotShardEntity.shardId(slotId, type))
+            .method(SlotShardEntity::getShard)
+            .invokeAsync()
+            .toCompletableFuture())
+        .toList();
+    var slot = componentClient
+        .forEventSourcedEntity(slotId)
+        .method(BookingSlotEntity::getSlot)
+        .invokeAsync()
+        .toCompletableFuture();
+
+    return CompletableFuture.allOf(slot, CompletableFuture.allOf(shards.toArray(CompletableFuture[]::new)))
+        .thenApply(ignored -> {
+          var available = new HashSet<Participant>();
+          shards.forEach(shard -> available.addAll(shard.join().available()));
+          return HttpResponses.ok(new Timeslot(slot.join().bookings(), available, slot.join().isSharded()));
+        })
+        .exceptionally(this::toErrorResponse);
+  }
+
+  @Post("/sharded/bookings/{slotId}")
+  public CompletionStage<HttpResponse> createShardedBooking(String slotId, BookingRequest request) {
+    log.info("Creating sharded booking for slot {}: {}", slotId, request);
+
+    return shardedBooking.book(slotId, request.toCommand(), request.participants())
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(slotId))
+        .thenApply(done -> HttpResponses.created())
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Marks many participants available across many slots in one request.
+  // Items are sent to their slot entities concurrently, with at most
+  // BATCH_PARALLELISM in flight, and each item gets its own result in the
+  // same order as the request. A failing item does not fail the batch.
+  @Post("/batch/availability")
+  public CompletionStage<BatchAvailabilityResponse> markAvailableBatch(BatchAvailabilityRequest request) {
+    if (request.items() == null || request.items().isEmpty()) {
+      throw HttpException.badRequest("batch must contain at least one item");
+    }
+    if (request.items().size() > MAX_BATCH_SIZE) {
+      throw HttpException.badRequest("batch must not contain more than " + MAX_BATCH_SIZE + " items");
+    }
+
+    log.info("Marking {} timeslot availabilities in batch", request.items().size());
+
+    return Source.from(request.items())
+        .mapAsync(BATCH_PARALLELISM, this::markItemAvailable)
+        .runWith(Sink.seq(), materializer)
+        .thenApply(BatchAvailabilityResponse::new);
+  }
+
+  // Invalid items fail on their own instead of failing the whole batch
+  private CompletionStage<BatchItemResult> markItemAvailable(BatchAvailabilityItem item) {
+    if (item.slotId() == null || item.slotId().isBlank()) {
+      return CompletableFuture.completedFuture(item.failed("slotId is required"));
+    }
+    if (item.participantId() == null || item.participantId().isBlank()) {
+      return CompletableFuture.completedFuture(item.failed("participantId is required"));
+    }
     ParticipantType participantType;
     try {
-      participantType = ParticipantType.valueOf(request.participantType().trim().toUpperCase());
+      participantType = ParticipantType.valueOf(item.participantType().trim().toUpperCase());
+    } catch (IllegalArgumentException | NullPointerException ex) {
+      return CompletableFuture.completedFuture(item.failed("invalid participant type"));
+    }
+
+    var participant = new Participant(item.participantId(), participantType);
+    return componentClient
+        .forEventSourcedEntity(item.slotId())
+        .method(BookingSlotEntity::markSlotAvailable)
+        .invokeAsync(new Command.MarkSlotAvailable(participant))
+        .whenComplete((done, ex) -> {
+          slotResponseCache.invalidate(item.slotId());
+          rejectionCache.invalidate(item.slotId(), participant);
+        })
+        .handle((done, ex) -> {
+          if (ex == null) {
+            return item.succeeded();
+          }
+          var cause = unwrap(ex);
+          log.warn("Failed to mark slot {} available for {}", item.slotId(), item.participantId(), cause);
+          return item.failed(cause.getMessage());
+        });
+  }
+
+  // Starts an all-or-nothing booking of one participant triple across several
+  // slots, e.g. a cross-country flight. The booking runs in the background as
+  // a workflow; poll the GET route below for its outcome. Starting the same
+  // bookingId again is a no-op.
+  @Post("/multi-slot-bookings/{bookingId}")
+  public CompletionStage<HttpResponse> createMultiSlotBooking(String bookingId, MultiSlotBookingRequest request) {
+    log.info("Starting multi-slot booking {}", bookingId);
+
+    return componentClient
+        .forWorkflow(bookingId)
+        .method(MultiSlotBookingWorkflow::start)
+        .invokeAsync(new MultiSlotBookingWorkflow.Start(
+            request.studentId(), request.aircraftId(), request.instructorId(), request.slotIds()))
+        .thenApply(done -> HttpResponses.accepted())
+        .exceptionally(this::toErrorResponse);
+  }
+
+  @Get("/multi-slot-bookings/{bookingId}")
+  public CompletionStage<HttpResponse> getMultiSlotBooking(String bookingId) {
+    return componentClient
+        .forWorkflow(bookingId)
+        .method(MultiSlotBookingWorkflow::getState)
+        .invokeAsync()
+        .thenApply(HttpResponses::ok)
+        .exceptionally(this::toErrorResponse);
+  }
+
+  // Books the same student, instructor and aircraft into many slots at once,
+  // e.g. a weekly lesson for a whole course. Slots are booked concurrently,
+  // with at most BATCH_PARALLELISM in flight, and each slot gets its own
+  // result in request order. Each slot is booked under
+  // `<bookingId>-<slotId>`, so retrying the whole request is safe.
+  //
+  // With allOrNothing set, any failure releases the bookings that did
+  // succeed, making their participants available in those slots again, and
+  // those are reported as rolled back.
+  @Post("/recurring-bookings")
+  public CompletionStage<RecurringBookingResponse> createRecurringBooking(RecurringBookingRequest request) {
+    if (request.bookingId() == null || request.bookingId().isBlank()) {
+      throw HttpException.badRequest("bookingId is required");
+    }
+    if (request.slotIds() == null || request.slotIds().isEmpty()) {
+      throw HttpException.badRequest("slotIds must contain at least one slot");
+    }
+    if (request.slotIds().size() > MAX_RECURRING_SLOTS) {
+      throw HttpException.badRequest("slotIds must not contain more than " + MAX_RECURRING_SLOTS + " slots");
+    }
+    if (request.slotIds().stream().distinct().count() != request.slotIds().size()) {
+      throw HttpException.badRequest("slotIds must not contain duplicates");
+    }
+
+    log.info("Creating recurring booking {} across {} slots", request.bookingId(), request.slotIds().size());
+
+    return Source.from(request.slotIds())
+        .mapAsync(BATCH_PARALLELISM, slotId -> bookRecurringSlot(slotId, request))
+        .runWith(Sink.seq(), materializer)
+        .thenCompose(results -> {
+          boolean failed = results.stream().anyMatch(result -> !result.success());
+          if (!failed || !request.allOrNothing()) {
+            return CompletableFuture.completedFuture(new RecurringBookingResponse(results));
+          }
+          return Source.from(results)
+              .mapAsync(BATCH_PARALLELISM, this::rollBack)
+              .runWith(Sink.seq(), materializer)
+              .thenApply(RecurringBookingResponse::new);
+        });
+  }
+
+  private CompletionStage<RecurringSlotResult> bookRecurringSlot(String slotId, RecurringBookingRequest request) {
+    var bookingId = request.bookingId() + "-" + slotId;
+
+    return slotBooking
+        .book(slotId, new Command.BookReservation(
+            request.studentId(), request.aircraftId(), request.instructorId(), bookingId))
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(slotId))
+        .handle((done, ex) -> {
+          if (ex == null) {
+            return new RecurringSlotResult(slotId, bookingId, true, null);
+          }
+          var cause = unwrap(ex);
+          log.warn("Failed to book slot {} for recurring booking {}", slotId, request.bookingId(), cause);
+          return new RecurringSlotResult(slotId, bookingId, false, cause.getMessage());
+        });
+  }
+
+  // Releases a booked slot of a failed all-or-nothing recurring booking
+  private CompletionStage<RecurringSlotResult> rollBack(RecurringSlotResult result) {
+    if (!result.success()) {
+      return CompletableFuture.completedFuture(result);
+    }
+
+    return componentClient
+        .forEventSourcedEntity(result.slotId())
+        .method(BookingSlotEntity::releaseBooking)
+        .invokeAsync(result.bookingId())
+        .whenComplete((done, ex) -> slotResponseCache.invalidate(result.slotId()))
+        .handle((done, ex) -> {
+          if (ex == null) {
+            return new RecurringSlotResult(result.slotId(), result.bookingId(), false, "rolled back");
+          }
+          var cause = unwrap(ex);
+          log.error("Failed to roll back booking {} in slot {}", result.bookingId(), result.slotId(), cause);
+          return new RecurringSlotResult(result.slotId(), result.bookingId(), true,
+              "roll back failed: " + cause.getMessage());
+        });
+  }
+
+  // Errors returned by an entity through effects().error(...) reach the
+  // component client as IllegalArgumentException. Those are rejections of the
+  // request itself and become a 400 carrying the entity's message; any other
+  // failure is left to fail the request.
+  private HttpResponse toErrorResponse(Throwable failure) {
+    var cause = unwrap(failure);
+    if (cause instanceof IllegalArgumentException) {
+      log.info("Request rejected: {}", cause.getMessage());
+      return HttpResponses.badRequest(cause.getMessage());
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    throw new CompletionException(cause);
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+  }
+
+  // Normalizes a participant availability status path parameter
+  private ParticipantAvailabilityStatus parseStatus(String status) {
+    try {
+      return ParticipantAvailabilityStatus.fromValue(status);
     } catch (IllegalArgumentException ex) {
-      log.warn("Bad participant type {}", request.participantType());
-      throw HttpException.badRequest("invalid participant type");
+      throw HttpException.badRequest(status + " is an invalid status");
     }
+  }
 
-    componentClient
-        .forEventSourcedEntity(slotId)
-        .method(BookingSlotEntity::unmarkSlotAvailable)
-        .invoke(new Command.UnmarkSlotAvailable(new Participant(request.participantId(), participantType)));
+  private Optional<Instant> instantParam(String name) {
+    try {
+      return requestContext().queryParams().getString(name).map(Instant::parse);
+    } catch (DateTimeParseException ex) {
+      throw HttpException.badRequest(name + " must be an ISO-8601 instant");
+    }
+  }
+
+  private String pageToken() {
+    return requestContext().queryParams().getString("pageToken").orElse("");
+  }
 
-    return HttpResponses.ok();
+  private int pageSize() {
+    int pageSize = requestContext().queryParams().getInteger("pageSize").orElse(DEFAULT_PAGE_SIZE);
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw HttpException.badRequest("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    return pageSize;
+  }
+
+  private ParticipantType parseParticipantType(String participantType) {
+    try {
+      return ParticipantType.valueOf(participantType.trim().toUpperCase());
+    } catch (IllegalArgumentException ex) {
+      log.warn("Bad participant type {}", participantType);
+      throw HttpException.badRequest("invalid participant type");
+    }
   }
 
   // Public API representation of a booking request
@@ -145,9 +674,62 @@ public class FlightEndpoint extends AbstractHttpEndpoint {
     public Command.BookReservation toCommand() {
       return new Command.BookReservation(studentId, aircraftId, instructorId, bookingId);
     }
+
+    List<Participant> participants() {
+      return List.of(
+          new Participant(studentId, ParticipantType.STUDENT),
+          new Participant(instructorId, ParticipantType.INSTRUCTOR),
+          new Participant(aircraftId, ParticipantType.AIRCRAFT));
+    }
   }
 
   // Public API representation of an availability mark/unmark request
   public record AvailabilityRequest(String participantId, String participantType) {
   }
+
+  // Public API representation of a batch of availability marks
+  public record BatchAvailabilityRequest(List<BatchAvailabilityItem> items) {
+  }
+
+  public record BatchAvailabilityItem(String slotId, String participantId, String participantType) {
+
+    BatchItemResult succeeded() {
+      return new BatchItemResult(slotId, participantId, true, null);
+    }
+
+    BatchItemResult failed(String error) {
+      return new BatchItemResult(slotId, participantId, false, error);
+    }
+  }
+
+  // Outcome of a single batch item; `error` is only set when `success` is false
+  public record BatchItemResult(String slotId, String participantId, boolean success, String error) {
+  }
+
+  public record BatchAvailabilityResponse(List<BatchItemResult> results) {
+  }
+
+  // Public API representation of an all-or-nothing multi-slot booking
+  public record MultiSlotBookingRequest(
+      String studentId, String aircraftId, String instructorId, List<String> slotIds) {
+  }
+
+  // Public API representation of a booking of the same participants into
+  // many slots
+  public record RecurringBookingRequest(
+      String studentId,
+      String aircraftId,
+      String instructorId,
+      String bookingId,
+      List<String> slotIds,
+      boolean allOrNothing) {
+  }
+
+  // Outcome for a single slot; `success` tells whether the slot is booked
+  // and `error` is only set when something went wrong
+  public record RecurringSlotResult(String slotId, String bookingId, boolean success, String error) {
+  }
+
+  public record RecurringBookingResponse(List<RecurringSlotResult> results) {
+  }
 }
@@ -0,0 +1,27 @@
+package io.example.api;
+
+import java.util.List;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import io.example.application.PipelineMetrics;
+
+// Exposes the in-process metrics of the booking -> participant pipeline so
+// that each stage falling behind can be monitored and alerted on.
+// Values cover the events handled by the instance serving the request.
+// Only reachable by other services of the project, not from the internet.
+@Acl(allow = @Acl.Matcher(service = "*"))
+@HttpEndpoint("/metrics")
+public class MetricsEndpoint extends AbstractHttpEndpoint {
+
+  // Returns throughput, handling latency and stage lag for each pipeline stage
+  @Get("/pipeline")
+  public PipelineMetricsResponse pipeline() {
+    return new PipelineMetricsResponse(PipelineMetrics.snapshot());
+  }
+
+  public record PipelineMetricsResponse(List<PipelineMetrics.StageSnapshot> stages) {
+  }
+}
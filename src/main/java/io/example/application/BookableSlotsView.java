@@ -0,0 +1,161 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.example.domain.BookingEvent;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotTime;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Search index over the BookingEvent stream with one row per slot, listing
+// the participants of each type that are still available in it. It mirrors
+// Timeslot: booking removes the participants from the available lists, and a
+// cancellation does not put them back.
+//
+// This lets a single query intersect availability across a whole time window
+// ("every slot next week where student S, instructor X and any aircraft are
+// free") instead of reading every slot entity.
+@ComponentId("view-bookable-slots")
+public class BookableSlotsView extends View {
+
+  @Consume.FromEventSourcedEntity(BookingSlotEntity.class)
+  public static class BookableSlotsUpdater extends TableUpdater<BookableSlot> {
+
+    @Override
+    public BookableSlot emptyRow() {
+      return new BookableSlot("", null, List.of(), List.of(), List.of(), 0, 0, 0);
+    }
+
+    public Effect<BookableSlot> onEvent(BookingEvent event) {
+      var row = rowState().slotId().isEmpty() ? emptyRow().forSlot(slotIdOf(event)) : rowState();
+      return switch (event) {
+        case BookingEvent.ParticipantMarkedAvailable marked ->
+          effects().updateRow(row.withAvailable(marked.participantType(), marked.participantId()));
+        case BookingEvent.ParticipantUnmarkedAvailable unmarked ->
+          effects().updateRow(row.withoutAvailable(unmarked.participantType(), unmarked.participantId()));
+        case BookingEvent.BookingCreated created ->
+          effects().updateRow(row
+              .withoutAvailable(ParticipantType.STUDENT, created.studentId())
+              .withoutAvailable(ParticipantType.INSTRUCTOR, created.instructorId())
+              .withoutAvailable(ParticipantType.AIRCRAFT, created.aircraftId()));
+        case BookingEvent.ParticipantBooked booked ->
+          effects().updateRow(row.withoutAvailable(booked.participantType(), booked.participantId()));
+        case BookingEvent.BookingCanceled canceled -> effects().ignore();
+        case BookingEvent.ParticipantCanceled canceled -> effects().ignore();
+        case BookingEvent.ShardingEnabled enabled -> effects().ignore();
+      };
+    }
+
+    private static String slotIdOf(BookingEvent event) {
+      return switch (event) {
+        case BookingEvent.ParticipantMarkedAvailable e -> e.slotId();
+        case BookingEvent.ParticipantUnmarkedAvailable e -> e.slotId();
+        case BookingEvent.BookingCreated e -> e.slotId();
+        case BookingEvent.BookingCanceled e -> e.slotId();
+        case BookingEvent.ParticipantBooked e -> e.slotId();
+        case BookingEvent.ParticipantCanceled e -> e.slotId();
+        case BookingEvent.ShardingEnabled e -> e.slotId();
+      };
+    }
+  }
+
+  // The counts duplicate the list sizes so that queries can filter on
+  // "any participant of this type" without array functions
+  public record BookableSlot(
+      String slotId,
+      Instant startTime,
+      List<String> students,
+      List<String> instructors,
+      List<String> aircraft,
+      int studentCount,
+      int instructorCount,
+      int aircraftCount) {
+
+    BookableSlot forSlot(String slotId) {
+      return new BookableSlot(slotId, SlotTime.startOf(slotId).orElse(null), students, instructors, aircraft,
+          studentCount, instructorCount, aircraftCount);
+    }
+
+    BookableSlot withAvailable(ParticipantType type, String participantId) {
+      var ids = idsOf(type);
+      if (ids.contains(participantId)) {
+        return this;
+      }
+      var updated = new ArrayList<>(ids);
+      updated.add(participantId);
+      return withIds(type, updated);
+    }
+
+    BookableSlot withoutAvailable(ParticipantType type, String participantId) {
+      var ids = idsOf(type);
+      if (!ids.contains(participantId)) {
+        return this;
+      }
+      var updated = new ArrayList<>(ids);
+      updated.remove(participantId);
+      return withIds(type, updated);
+    }
+
+    private List<String> idsOf(ParticipantType type) {
+      return switch (type) {
+        case STUDENT -> students;
+        case INSTRUCTOR -> instructors;
+        case AIRCRAFT -> aircraft;
+      };
+    }
+
+    private BookableSlot withIds(ParticipantType type, List<String> ids) {
+      return switch (type) {
+        case STUDENT -> new BookableSlot(slotId, startTime, ids, instructors, aircraft,
+            ids.size(), instructorCount, aircraftCount);
+        case INSTRUCTOR -> new BookableSlot(slotId, startTime, students, ids, aircraft,
+            studentCount, ids.size(), aircraftCount);
+        case AIRCRAFT -> new BookableSlot(slotId, startTime, students, instructors, ids,
+            studentCount, instructorCount, ids.size());
+      };
+    }
+  }
+
+  // Slots starting in [from, to) where the student can book
+  public record StudentSearchInput(String studentId, Instant from, Instant to) {
+  }
+
+  // Slots starting in [from, to) where the student can book with the instructor
+  public record StudentInstructorSearchInput(String studentId, String instructorId, Instant from, Instant to) {
+  }
+
+  public record BookableSlots(List<BookableSlot> slots) {
+  }
+
+  @Query("""
+      SELECT * AS slots FROM view_bookable_slots
+      WHERE :studentId = ANY(students)
+      AND instructorCount > 0
+      AND aircraftCount > 0
+      AND startTime >= :from
+      AND startTime < :to
+      ORDER BY startTime
+      """)
+  public QueryEffect<BookableSlots> findBookableSlots(StudentSearchInput input) {
+    return queryResult();
+  }
+
+  @Query("""
+      SELECT * AS slots FROM view_bookable_slots
+      WHERE :studentId = ANY(students)
+      AND :instructorId = ANY(instructors)
+      AND aircraftCount > 0
+      AND startTime >= :from
+      AND startTime < :to
+      ORDER BY startTime
+      """)
+  public QueryEffect<BookableSlots> findBookableSlotsWithInstructor(StudentInstructorSearchInput input) {
+    return queryResult();
+  }
+}
@@ -0,0 +1,104 @@
+package io.example.application;
+
+import io.example.domain.Participant;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// A short-lived, size-bounded record of (slotId, participant) pairs known to
+// be unavailable for booking, because the participant got booked or withdrew
+// its availability. FlightEndpoint consults it to reject hopeless booking
+// retries without a round-trip to the BookingSlotEntity.
+//
+// Entries are added and invalidated by SlotAvailabilityCacheConsumer from the
+// BookingEvent stream. FlightEndpoint also invalidates a participant as soon
+// as it has marked it available, so a participant marked available again is
+// not rejected on that instance while the consumer catches up. Other
+// instances only learn of it through the consumer, if it runs there, or
+// through expiry: each entry expires `ttl` after the event that created it,
+// so the cache never blocks a booking that the entity would accept for
+// longer than that. It is a per-instance hint: the entity remains the
+// authority for every booking that passes the check.
+//
+// Entries created by a booking remember its booking ID, so that a retry of
+// that same booking is not rejected and reaches the (idempotent) entity.
+public final class BookingRejectionCache {
+
+  private static final int MAX_ENTRIES = 10_000;
+  private static final Duration TTL = Duration.ofSeconds(5);
+
+  private static final BookingRejectionCache SHARED =
+      new BookingRejectionCache(MAX_ENTRIES, TTL, System::currentTimeMillis);
+
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LongSupplier clockMillis;
+  // least recently used first
+  private final LinkedHashMap<Key, Entry> entries;
+
+  BookingRejectionCache(int maxEntries, Duration ttl, LongSupplier clockMillis) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttl.toMillis();
+    this.clockMillis = clockMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > BookingRejectionCache.this.maxEntries;
+      }
+    };
+  }
+
+  public static BookingRejectionCache shared() {
+    return SHARED;
+  }
+
+  // Records that the participant became unavailable in the slot at `since`
+  public void markUnavailable(String slotId, Participant participant, Instant since) {
+    markBooked(slotId, participant, null, since);
+  }
+
+  // Records that the participant got booked in the slot under bookingId at `since`
+  public synchronized void markBooked(String slotId, Participant participant, String bookingId, Instant since) {
+    long expiresAt = since.toEpochMilli() + ttlMillis;
+    if (expiresAt > clockMillis.getAsLong()) {
+      entries.put(new Key(slotId, participant), new Entry(expiresAt, bookingId));
+    }
+  }
+
+  public synchronized void invalidate(String slotId, Participant participant) {
+    entries.remove(new Key(slotId, participant));
+  }
+
+  public boolean isKnownUnavailable(String slotId, Participant participant) {
+    return isKnownUnavailable(slotId, participant, null);
+  }
+
+  // Same as above, except that a participant booked under bookingId itself
+  // does not count as unavailable
+  public synchronized boolean isKnownUnavailable(String slotId, Participant participant, String bookingId) {
+    var key = new Key(slotId, participant);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return false;
+    }
+    if (entry.expiresAt() <= clockMillis.getAsLong()) {
+      entries.remove(key);
+      return false;
+    }
+    return bookingId == null || !bookingId.equals(entry.bookingId());
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private record Key(String slotId, Participant participant) {
+  }
+
+  // expiresAt is in epoch millis; bookingId is null unless the entry was
+  // created by a booking
+  private record Entry(long expiresAt, String bookingId) {
+  }
+}
@@ -9,7 +9,9 @@ import io.example.domain.Participant;
 import io.example.domain.Timeslot;
 import io.example.domain.Participant.ParticipantType;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -19,6 +21,15 @@ import org.slf4j.LoggerFactory;
 @ComponentId("booking-slot")
 public class BookingSlotEntity extends EventSourcedEntity<Timeslot, BookingEvent> {
 
+  public static final String PARTICIPANTS_UNAVAILABLE =
+      "Not all of the requested participants are available for the training flight";
+  public static final String BOOKING_ID_CONFLICT =
+      "The booking ID is already used by a booking with different participants";
+  public static final String SLOT_SHARDED =
+      "The slot keeps its availability in shards and must be booked through the sharded routes";
+  public static final String SLOT_NOT_SHARDED =
+      "The slot does not use sharded availability and must be booked through the regular routes";
+
   private final String entityId;
   private static final Logger logger = LoggerFactory.getLogger(BookingSlotEntity.class);
 
@@ -26,65 +37,196 @@ public class BookingSlotEntity extends EventSourcedEntity<Timeslot, BookingEvent
     this.entityId = context.entityId();
   }
 
+  // Marking an already available participant, or unmarking one that is not
+  // available, is a no-op: it replies Done without persisting, so nothing
+  // fans out to the consumers downstream
   public Effect<Done> markSlotAvailable(Command.MarkSlotAvailable cmd) {
+    if (currentState().isSharded()) {
+      return effects().error(SLOT_SHARDED);
+    }
+    if (currentState().isWaiting(cmd.participant.id(), cmd.participant.participantType())) {
+      return effects().reply(Done.getInstance());
+    }
     return effects().persist(
         new BookingEvent.ParticipantMarkedAvailable(entityId, cmd.participant.id(), cmd.participant.participantType()))
         .thenReply(newState -> Done.getInstance());
   }
 
   public Effect<Done> unmarkSlotAvailable(Command.UnmarkSlotAvailable cmd) {
+    if (currentState().isSharded()) {
+      return effects().error(SLOT_SHARDED);
+    }
+    if (!currentState().isWaiting(cmd.participant.id(), cmd.participant.participantType())) {
+      return effects().reply(Done.getInstance());
+    }
     return effects().persist(new BookingEvent.ParticipantUnmarkedAvailable(entityId, cmd.participant.id(),
         cmd.participant.participantType())).thenReply(newState -> Done.getInstance());
   }
 
-  // NOTE: booking a slot should produce 3
-  // `ParticipantBooked` events
+  // Booking a slot persists a single BookingCreated event for all three
+  // participants.
+  //
+  // Booking is idempotent on the booking ID: a retry of a booking that is
+  // already in the slot replies Done without persisting anything. The booking
+  // index in Timeslot doubles as the deduplication table, so entries are kept
+  // for exactly as long as the booking exists.
   public Effect<Done> bookSlot(Command.BookReservation cmd) {
-    var isAllParticipantAvailable = currentState().available()
-        .containsAll(Set.of(new Participant(cmd.studentId, ParticipantType.STUDENT),
-            new Participant(cmd.instructorId, ParticipantType.INSTRUCTOR),
-            new Participant(cmd.aircraftId, ParticipantType.AIRCRAFT)));
-    if (!isAllParticipantAvailable) {
-      return effects().error("Not all of the requested participants are available for the training flight");
+    if (currentState().isSharded()) {
+      return effects().error(SLOT_SHARDED);
+    }
+    var requested = participantsOf(cmd);
+
+    var existing = currentState().findBooking(cmd.bookingId);
+    if (!existing.isEmpty()) {
+      return retriedBooking(cmd, existing);
+    }
+
+    if (!currentState().available().containsAll(requested)) {
+      return effects().error(PARTICIPANTS_UNAVAILABLE);
     }
     return effects()
-        .persist(new BookingEvent.ParticipantBooked(entityId, cmd.studentId, ParticipantType.STUDENT, cmd.bookingId),
-            new BookingEvent.ParticipantBooked(entityId, cmd.instructorId, ParticipantType.INSTRUCTOR, cmd.bookingId),
-            new BookingEvent.ParticipantBooked(entityId, cmd.aircraftId, ParticipantType.AIRCRAFT, cmd.bookingId))
+        .persist(new BookingEvent.BookingCreated(entityId, cmd.bookingId, cmd.studentId, cmd.instructorId,
+            cmd.aircraftId))
         .thenReply(newState -> Done.getInstance());
   }
 
-  // NOTE: canceling a booking should produce 3
-  // `ParticipantCanceled` events
+  // A slot uses either sharded or regular availability, never both. The
+  // first sharded availability change switches an untouched slot to sharded
+  // availability for good; from then on the regular availability and booking
+  // commands are rejected, and only sharded slots record claimed bookings.
+  public Effect<Done> enableSharding() {
+    if (currentState().isSharded()) {
+      return effects().reply(Done.getInstance());
+    }
+    if (!currentState().available().isEmpty() || !currentState().bookings().isEmpty()) {
+      return effects().error(SLOT_NOT_SHARDED);
+    }
+    logger.info("Enabling sharded availability for slot {}", entityId);
+    return effects().persist(new BookingEvent.ShardingEnabled(entityId)).thenReply(newState -> Done.getInstance());
+  }
+
+  // Records a booking whose participants were already claimed in their
+  // SlotShardEntity, which is where availability lives for sharded slots, so
+  // availability is not checked here. The claims already keep a participant
+  // out of two bookings; refusing participants the slot holds under another
+  // booking guards the slot against anything bypassing them. Idempotent like
+  // bookSlot.
+  public Effect<Done> recordClaimedBooking(Command.BookReservation cmd) {
+    if (!currentState().isSharded()) {
+      return effects().error(SLOT_NOT_SHARDED);
+    }
+    var existing = currentState().findBooking(cmd.bookingId);
+    if (!existing.isEmpty()) {
+      return retriedBooking(cmd, existing);
+    }
+    if (participantsOf(cmd).stream()
+        .anyMatch(participant -> currentState().isBooked(participant.id(), participant.participantType()))) {
+      return effects().error(PARTICIPANTS_UNAVAILABLE);
+    }
+    return effects()
+        .persist(new BookingEvent.BookingCreated(entityId, cmd.bookingId, cmd.studentId, cmd.instructorId,
+            cmd.aircraftId))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  // A booking ID already in the slot is a retry if it books the same
+  // participants, and a conflict otherwise
+  private Effect<Done> retriedBooking(Command.BookReservation cmd, List<Timeslot.Booking> existing) {
+    var booked = existing.stream().map(Timeslot.Booking::participant).collect(Collectors.toSet());
+    if (!booked.equals(participantsOf(cmd))) {
+      return effects().error(BOOKING_ID_CONFLICT);
+    }
+    logger.info("Booking {} already exists, skipping retried booking", cmd.bookingId);
+    return effects().reply(Done.getInstance());
+  }
+
+  private static Set<Participant> participantsOf(Command.BookReservation cmd) {
+    return Set.of(new Participant(cmd.studentId, ParticipantType.STUDENT),
+        new Participant(cmd.instructorId, ParticipantType.INSTRUCTOR),
+        new Participant(cmd.aircraftId, ParticipantType.AIRCRAFT));
+  }
+
+  // Canceling a booking persists a single BookingCanceled event. A booking
+  // that does not hold exactly one participant of each type cannot be
+  // described by one, and is canceled participant by participant instead.
+  //
+  // Canceling an unknown (or already canceled) booking is a no-op, so
+  // retried cancellations reply Done without writing to the journal.
   public Effect<Done> cancelBooking(String bookingId) {
+    var bookings = currentState().findBooking(bookingId);
+    if (bookings.isEmpty()) {
+      logger.info("Booking {} not found, nothing to cancel", bookingId);
+      return effects().reply(Done.getInstance());
+    }
+
     logger.info("Cancelling booking {}", bookingId);
-    var cancelRelatedParticipantsEvents = currentState().findBooking(bookingId).stream()
+    return effects().persistAll(cancelEvents(bookingId, bookings)).thenReply(newState -> Done.getInstance());
+  }
+
+  // Cancels a booking and marks its participants available in the slot
+  // again, undoing the booking completely. Used to roll back bookings that
+  // are part of a larger booking that failed. Releasing an unknown (or
+  // already released) booking is a no-op.
+  public Effect<Done> releaseBooking(String bookingId) {
+    var bookings = currentState().findBooking(bookingId);
+    if (bookings.isEmpty()) {
+      logger.info("Booking {} not found, nothing to release", bookingId);
+      return effects().reply(Done.getInstance());
+    }
+
+    if (currentState().isSharded()) {
+      return effects().error(SLOT_SHARDED);
+    }
+
+    logger.info("Releasing booking {}", bookingId);
+    var events = new ArrayList<>(cancelEvents(bookingId, bookings));
+    bookings.forEach(booking -> events.add(new BookingEvent.ParticipantMarkedAvailable(entityId,
+        booking.participant().id(), booking.participant().participantType())));
+    return effects().persistAll(events).thenReply(newState -> Done.getInstance());
+  }
+
+  private List<BookingEvent> cancelEvents(String bookingId, List<Timeslot.Booking> bookings) {
+    var byType = bookings.stream()
+        .map(Timeslot.Booking::participant)
+        .collect(Collectors.groupingBy(Participant::participantType,
+            Collectors.mapping(Participant::id, Collectors.toList())));
+    if (bookings.size() == 3 && byType.keySet().equals(EnumSet.allOf(ParticipantType.class))) {
+      return List.of(new BookingEvent.BookingCanceled(entityId, bookingId,
+          byType.get(ParticipantType.STUDENT).get(0),
+          byType.get(ParticipantType.INSTRUCTOR).get(0),
+          byType.get(ParticipantType.AIRCRAFT).get(0)));
+    }
+
+    return bookings.stream()
         .map(booking -> booking.participant())
-        .map(participant -> new BookingEvent.ParticipantCanceled(entityId, participant.id(),
+        .map(participant -> (BookingEvent) new BookingEvent.ParticipantCanceled(entityId, participant.id(),
             participant.participantType(), bookingId))
-        .collect(Collectors.toList());
-    return effects().persistAll(cancelRelatedParticipantsEvents).thenReply(newState -> Done.getInstance());
+        .toList();
   }
 
+  // Timeslot is immutable, so the current state can be handed out as a
+  // snapshot without a defensive copy
   public ReadOnlyEffect<Timeslot> getSlot() {
     return effects().reply(currentState());
   }
 
+  // The slot together with the sequence number of the last event applied to
+  // it, which changes whenever the slot does
+  public ReadOnlyEffect<VersionedSlot> getVersionedSlot() {
+    return effects().reply(new VersionedSlot(currentState(), commandContext().sequenceNumber()));
+  }
+
+  public record VersionedSlot(Timeslot slot, long version) {
+  }
+
   @Override
   public Timeslot emptyState() {
-    return new Timeslot(
-        // NOTE: these are just estimates for capacity based on it being a sample
-        HashSet.newHashSet(10), HashSet.newHashSet(10));
+    return Timeslot.empty();
   }
 
   @Override
   public Timeslot applyEvent(BookingEvent event) {
-    return switch (event) {
-      case BookingEvent.ParticipantBooked booked -> currentState().book(booked);
-      case BookingEvent.ParticipantCanceled cancelled -> currentState().cancelBooking(cancelled.bookingId());
-      case BookingEvent.ParticipantMarkedAvailable participant -> currentState().reserve(participant);
-      case BookingEvent.ParticipantUnmarkedAvailable participant -> currentState().unreserve(participant);
-    };
+    return currentState().apply(event);
   }
 
   public sealed interface Command {
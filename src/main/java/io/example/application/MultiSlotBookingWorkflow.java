@@ -0,0 +1,181 @@
+package io.example.application;
+
+import static java.time.Duration.ofSeconds;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.workflow.Workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Books one student, instructor and aircraft into several slots atomically,
+// e.g. the consecutive slots of a cross-country flight. The workflow ID is
+// the booking ID, and every slot is booked under that same ID.
+//
+// All slots are booked in a single step that books them through SlotBooking
+// in parallel, so the common case costs about one calendar check plus one
+// bookSlot round-trip. If any slot rejects the booking, or a participant is
+// booked in an overlapping slot elsewhere, the compensation step releases it in every slot,
+// which also makes the participants available there again. Both steps can be
+// retried safely: booking is idempotent on the booking ID, and releasing an
+// unknown booking is a no-op.
+@ComponentId("multi-slot-booking")
+public class MultiSlotBookingWorkflow extends Workflow<MultiSlotBookingWorkflow.State> {
+
+  private static final Logger logger = LoggerFactory.getLogger(MultiSlotBookingWorkflow.class);
+
+  private static final String BOOK_SLOTS = "book-slots";
+  private static final String COMPENSATE = "compensate";
+
+  private final ComponentClient componentClient;
+  private final SlotBooking slotBooking;
+
+  public MultiSlotBookingWorkflow(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+    this.slotBooking = new SlotBooking(componentClient);
+  }
+
+  public enum Status {
+    BOOKING,
+    BOOKED,
+    COMPENSATING,
+    FAILED
+  }
+
+  public record Start(String studentId, String aircraftId, String instructorId, List<String> slotIds) {
+  }
+
+  // `error` is only set for slots that rejected the booking
+  public record SlotOutcome(String slotId, boolean booked, String error) {
+  }
+
+  public record State(
+      String bookingId,
+      String studentId,
+      String aircraftId,
+      String instructorId,
+      List<String> slotIds,
+      Status status,
+      List<SlotOutcome> outcomes) {
+
+    State withOutcomes(Status status, List<SlotOutcome> outcomes) {
+      return new State(bookingId, studentId, aircraftId, instructorId, slotIds, status, outcomes);
+    }
+
+    State withStatus(Status status) {
+      return withOutcomes(status, outcomes);
+    }
+  }
+
+  public record Outcomes(List<SlotOutcome> outcomes) {
+  }
+
+  @Override
+  public WorkflowDef<State> definition() {
+    // Entity rejections are recorded as outcomes and never fail the step, so
+    // retries only cover timeouts and infrastructure failures
+    var bookSlots = step(BOOK_SLOTS)
+        .asyncCall(() -> bookAll(currentState()))
+        .andThen(Outcomes.class, result -> {
+          boolean allBooked = result.outcomes().stream().allMatch(SlotOutcome::booked);
+          if (allBooked) {
+            return effects().updateState(currentState().withOutcomes(Status.BOOKED, result.outcomes())).end();
+          }
+          return effects()
+              .updateState(currentState().withOutcomes(Status.COMPENSATING, result.outcomes()))
+              .transitionTo(COMPENSATE);
+        });
+
+    var compensate = step(COMPENSATE)
+        .asyncCall(() -> releaseAll(currentState()))
+        .andThen(Done.class, done -> effects().updateState(currentState().withStatus(Status.FAILED)).end());
+
+    // Booking gives up after a few retries and compensates. Compensation has
+    // no failover and is retried until every slot has dropped the booking.
+    return workflow()
+        .defaultStepTimeout(ofSeconds(5))
+        .addStep(bookSlots, maxRetries(2).failoverTo(COMPENSATE))
+        .addStep(compensate);
+  }
+
+  public Effect<Done> start(Start start) {
+    if (currentState() != null) {
+      // a retried start of the same booking
+      return effects().reply(Done.getInstance());
+    }
+    if (start.slotIds() == null || start.slotIds().isEmpty()) {
+      return effects().error("slotIds must contain at least one slot");
+    }
+    if (start.slotIds().stream().distinct().count() != start.slotIds().size()) {
+      return effects().error("slotIds must not contain duplicates");
+    }
+
+    var bookingId = commandContext().workflowId();
+    logger.info("Starting multi-slot booking {} across {} slots", bookingId, start.slotIds().size());
+    var initial = new State(bookingId, start.studentId(), start.aircraftId(), start.instructorId(),
+        List.copyOf(start.slotIds()), Status.BOOKING, List.of());
+    return effects().updateState(initial).transitionTo(BOOK_SLOTS).thenReply(Done.getInstance());
+  }
+
+  public ReadOnlyEffect<State> getState() {
+    if (currentState() == null) {
+      return effects().error("Multi-slot booking not found");
+    }
+    return effects().reply(currentState());
+  }
+
+  private CompletionStage<Outcomes> bookAll(State state) {
+    var command = new BookingSlotEntity.Command.BookReservation(
+        state.studentId(), state.aircraftId(), state.instructorId(), state.bookingId());
+
+    List<CompletableFuture<SlotOutcome>> bookings = new ArrayList<>(state.slotIds().size());
+    for (String slotId : state.slotIds()) {
+      bookings.add(slotBooking
+          .book(slotId, command)
+          .handle((done, ex) -> {
+            if (ex == null) {
+              return new SlotOutcome(slotId, true, null);
+            }
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof IllegalArgumentException) {
+              return new SlotOutcome(slotId, false, cause.getMessage());
+            }
+            throw new CompletionException(cause);
+          })
+          .toCompletableFuture());
+    }
+
+    return CompletableFuture.allOf(bookings.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> new Outcomes(bookings.stream().map(CompletableFuture::join).toList()));
+  }
+
+  // Releases the booking in every slot that did not reject it, not only in
+  // those known to be booked, since a failed or timed out booking step may
+  // still have succeeded. Rejecting slots are skipped, as the booking ID
+  // there may belong to somebody else's booking.
+  private CompletionStage<Done> releaseAll(State state) {
+    var rejected = state.outcomes().stream()
+        .filter(outcome -> !outcome.booked())
+        .map(SlotOutcome::slotId)
+        .collect(Collectors.toSet());
+    var cancellations = state.slotIds().stream()
+        .filter(slotId -> !rejected.contains(slotId))
+        .map(slotId -> componentClient
+            .forEventSourcedEntity(slotId)
+            .method(BookingSlotEntity::releaseBooking)
+            .invokeAsync(state.bookingId())
+            .toCompletableFuture())
+        .toArray(CompletableFuture[]::new);
+
+    return CompletableFuture.allOf(cancellations).thenApply(ignored -> Done.getInstance());
+  }
+}
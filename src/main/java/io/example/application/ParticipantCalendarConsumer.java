@@ -0,0 +1,67 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import io.example.application.ParticipantCalendarEntity.Commands;
+import io.example.domain.BookingEvent;
+import io.example.domain.SlotTime;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+// Places booked slots on, and removes canceled ones from, the calendar of
+// each participant. Slots whose ID carries no start time cannot overlap
+// anything and are left off the calendar.
+@ComponentId("participant-calendar-consumer")
+@Consume.FromEventSourcedEntity(BookingSlotEntity.class)
+public class ParticipantCalendarConsumer extends Consumer {
+
+  private final ComponentClient client;
+
+  public ParticipantCalendarConsumer(ComponentClient client) {
+    this.client = client;
+  }
+
+  // The three calendars of a booking are updated concurrently
+  public Effect onEvent(BookingEvent event) {
+    return switch (event) {
+      case BookingEvent.BookingCreated created -> SlotTime.startOf(created.slotId())
+          .map(start -> effects().asyncDone(allDone(created.participantEvents().stream()
+              .map(booked -> recordBooking(booked, start)))))
+          .orElseGet(() -> effects().done());
+      case BookingEvent.BookingCanceled canceled -> SlotTime.startOf(canceled.slotId()).isEmpty()
+          ? effects().done()
+          : effects().asyncDone(allDone(canceled.participantEvents().stream().map(this::releaseBooking)));
+      case BookingEvent.ParticipantBooked booked -> SlotTime.startOf(booked.slotId())
+          .map(start -> effects().asyncDone(recordBooking(booked, start)))
+          .orElseGet(() -> effects().done());
+      case BookingEvent.ParticipantCanceled canceled -> SlotTime.startOf(canceled.slotId()).isEmpty()
+          ? effects().done()
+          : effects().asyncDone(releaseBooking(canceled));
+      case BookingEvent.ParticipantMarkedAvailable marked -> effects().done();
+      case BookingEvent.ParticipantUnmarkedAvailable unmarked -> effects().done();
+      case BookingEvent.ShardingEnabled enabled -> effects().done();
+    };
+  }
+
+  private CompletionStage<Done> recordBooking(BookingEvent.ParticipantBooked booked, Instant start) {
+    return client.forEventSourcedEntity(booked.participantId())
+        .method(ParticipantCalendarEntity::recordBooking)
+        .invokeAsync(new Commands.RecordBooking(booked.slotId(), booked.bookingId(), start));
+  }
+
+  private CompletionStage<Done> releaseBooking(BookingEvent.ParticipantCanceled canceled) {
+    return client.forEventSourcedEntity(canceled.participantId())
+        .method(ParticipantCalendarEntity::releaseBooking)
+        .invokeAsync(new Commands.ReleaseBooking(canceled.slotId(), canceled.bookingId()));
+  }
+
+  private static CompletionStage<Done> allDone(Stream<CompletionStage<Done>> calls) {
+    var futures = calls.map(CompletionStage::toCompletableFuture).toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(futures).thenApply(ignored -> Done.getInstance());
+  }
+}
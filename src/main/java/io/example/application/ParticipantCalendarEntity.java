@@ -0,0 +1,93 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.TypeName;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import io.example.domain.ParticipantCalendar;
+
+import java.time.Instant;
+import java.util.List;
+
+// The whole schedule of one participant, keyed by participant ID. It is fed
+// from the booking slot journal by ParticipantCalendarConsumer and answers
+// conflict checks across slots and "my schedule" reads with a single entity
+// call instead of a view query.
+@ComponentId("participant-calendar")
+public class ParticipantCalendarEntity extends EventSourcedEntity<ParticipantCalendar, ParticipantCalendarEntity.Event> {
+
+  public static final String SCHEDULE_CONFLICT =
+      "A requested participant is already booked in an overlapping slot";
+
+  // Recording an already recorded booking, or releasing an unknown one, is a
+  // no-op so that redelivered events persist nothing
+  public Effect<Done> recordBooking(Commands.RecordBooking record) {
+    var entry = new ParticipantCalendar.Entry(record.slotId(), record.bookingId(), record.start());
+    if (currentState().entries().contains(entry)) {
+      return effects().reply(Done.getInstance());
+    }
+    return effects()
+        .persist(new Event.SlotBooked(record.slotId(), record.bookingId(), record.start()))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  public Effect<Done> releaseBooking(Commands.ReleaseBooking release) {
+    if (currentState().without(release.slotId(), release.bookingId()) == currentState()) {
+      return effects().reply(Done.getInstance());
+    }
+    return effects()
+        .persist(new Event.SlotReleased(release.slotId(), release.bookingId()))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  public ReadOnlyEffect<Entries> getSchedule(Commands.GetSchedule range) {
+    return effects().reply(new Entries(currentState().between(range.from(), range.to())));
+  }
+
+  public ReadOnlyEffect<Entries> findConflicts(Commands.FindConflicts slot) {
+    return effects().reply(new Entries(currentState().conflictsWith(slot.slotId(), slot.start())));
+  }
+
+  @Override
+  public ParticipantCalendar emptyState() {
+    return ParticipantCalendar.empty();
+  }
+
+  public record Entries(List<ParticipantCalendar.Entry> entries) {
+  }
+
+  public sealed interface Commands {
+    record RecordBooking(String slotId, String bookingId, Instant start) implements Commands {
+    }
+
+    record ReleaseBooking(String slotId, String bookingId) implements Commands {
+    }
+
+    // Entries overlapping [from, to)
+    record GetSchedule(Instant from, Instant to) implements Commands {
+    }
+
+    // Entries of other slots overlapping the slot starting at `start`
+    record FindConflicts(String slotId, Instant start) implements Commands {
+    }
+  }
+
+  public sealed interface Event {
+    @TypeName("calendar-slot-booked")
+    record SlotBooked(String slotId, String bookingId, Instant start) implements Event {
+    }
+
+    @TypeName("calendar-slot-released")
+    record SlotReleased(String slotId, String bookingId) implements Event {
+    }
+  }
+
+  @Override
+  public ParticipantCalendar applyEvent(Event event) {
+    return switch (event) {
+      case Event.SlotBooked booked ->
+        currentState().with(new ParticipantCalendar.Entry(booked.slotId(), booked.bookingId(), booked.start()));
+      case Event.SlotReleased released -> currentState().without(released.slotId(), released.bookingId());
+    };
+  }
+}
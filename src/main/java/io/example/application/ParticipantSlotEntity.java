@@ -5,8 +5,11 @@ import org.slf4j.LoggerFactory;
 
 import akka.Done;
 import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Migration;
 import akka.javasdk.annotations.TypeName;
 import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.example.domain.CompactEventMigration;
 import io.example.domain.Participant.ParticipantAvailabilityStatus;
 import io.example.domain.Participant.ParticipantType;
 
@@ -38,12 +41,21 @@ public class ParticipantSlotEntity
     return effects().reply(Done.done());
   }
 
+  // Aggregate booking events are split into one command per participant,
+  // and a redelivered event books again the participants that already
+  // applied it. Booking again for the booking that holds the participant is
+  // therefore a no-op, as is canceling a booking already canceled.
   public Effect<Done> book(ParticipantSlotEntity.Commands.Book book) {
     if (isUnavailable()) {
       return effects().error("Requested participant is not available");
     }
 
-    if (ParticipantAvailabilityStatus.BOOKED.getValue().equalsIgnoreCase(currentState().status())) {
+    if (currentState().status() == ParticipantAvailabilityStatus.BOOKED) {
+      if (book.bookingId().equals(currentState().bookingId())) {
+        logger.info("Participant {} for slot {} already booked for booking {}, skipping redelivered booking",
+            book.participantId(), book.slotId(), book.bookingId());
+        return effects().reply(Done.getInstance());
+      }
       return effects().error("Requested participant is already booked for the given slot");
     }
 
@@ -53,16 +65,22 @@ public class ParticipantSlotEntity
   }
 
   private boolean isUnavailable() {
-    return currentState() == null
-        || ParticipantAvailabilityStatus.UNAVAILABLE.getValue().equalsIgnoreCase(currentState().status());
+    return currentState() == null || currentState().status() == ParticipantAvailabilityStatus.UNAVAILABLE;
   }
 
   public Effect<Done> cancel(ParticipantSlotEntity.Commands.Cancel cancel) {
+    if (currentState() != null && currentState().status() != ParticipantAvailabilityStatus.BOOKED
+        && cancel.bookingId().equals(currentState().bookingId())) {
+      logger.info("Booking {} of participant {} for slot {} already canceled, skipping redelivered cancellation",
+          cancel.bookingId(), cancel.participantId(), cancel.slotId());
+      return effects().reply(Done.getInstance());
+    }
+
     if (isUnavailable()) {
       return effects().error("Failed to cancel unavailable participant slot");
     }
 
-    if (!currentState().status().equalsIgnoreCase(ParticipantAvailabilityStatus.BOOKED.getValue())) {
+    if (currentState().status() != ParticipantAvailabilityStatus.BOOKED) {
       logger.error("Cancelled event ignored for non booked participant {} for slot {}", cancel.participantId(),
           cancel.slotId());
       return effects().error("Failed to cancel available but not booked participant slot");
@@ -73,10 +91,21 @@ public class ParticipantSlotEntity
         .thenReply(newState -> Done.getInstance());
   }
 
+  // status used to be persisted as its lowercase string value, which is
+  // still how it is serialized (see ParticipantAvailabilityStatus).
+  //
+  // bookingId is the booking that holds, or last held, the participant. It
+  // is null for participants never booked and in snapshots taken before it
+  // was added.
   record State(
-      String slotId, String participantId, ParticipantType participantType, String status) {
-    public State withStatus(String status) {
-      return new State(this.slotId, this.participantId, this.participantType, status);
+      String slotId, String participantId, ParticipantType participantType, ParticipantAvailabilityStatus status,
+      String bookingId) {
+    public State withStatus(ParticipantAvailabilityStatus status) {
+      return new State(this.slotId, this.participantId, this.participantType, status, this.bookingId);
+    }
+
+    public State withBooking(ParticipantAvailabilityStatus status, String bookingId) {
+      return new State(this.slotId, this.participantId, this.participantType, status, bookingId);
     }
   }
 
@@ -100,26 +129,43 @@ public class ParticipantSlotEntity
     }
   }
 
+  // Fields are persisted under compact names; see CompactEventMigration
   public sealed interface Event {
+    @Migration(CompactEventMigration.class)
     @TypeName("marked-available")
-    record MarkedAvailable(String slotId, String participantId, ParticipantType participantType)
+    record MarkedAvailable(
+        @JsonProperty("s") String slotId,
+        @JsonProperty("p") String participantId,
+        @JsonProperty("t") ParticipantType participantType)
         implements Event {
     }
 
+    @Migration(CompactEventMigration.class)
     @TypeName("unmarked-available")
-    record UnmarkedAvailable(String slotId, String participantId, ParticipantType participantType)
+    record UnmarkedAvailable(
+        @JsonProperty("s") String slotId,
+        @JsonProperty("p") String participantId,
+        @JsonProperty("t") ParticipantType participantType)
         implements Event {
     }
 
+    @Migration(CompactEventMigration.class)
     @TypeName("participant-booked")
     record Booked(
-        String slotId, String participantId, ParticipantType participantType, String bookingId)
+        @JsonProperty("s") String slotId,
+        @JsonProperty("p") String participantId,
+        @JsonProperty("t") ParticipantType participantType,
+        @JsonProperty("b") String bookingId)
         implements Event {
     }
 
+    @Migration(CompactEventMigration.class)
     @TypeName("participant-canceled")
     record Canceled(
-        String slotId, String participantId, ParticipantType participantType, String bookingId)
+        @JsonProperty("s") String slotId,
+        @JsonProperty("p") String participantId,
+        @JsonProperty("t") ParticipantType participantType,
+        @JsonProperty("b") String bookingId)
         implements Event {
     }
   }
@@ -128,12 +174,14 @@ public class ParticipantSlotEntity
   public ParticipantSlotEntity.State applyEvent(ParticipantSlotEntity.Event event) {
     return switch (event) {
       case Event.MarkedAvailable marked -> new State(
-          marked.slotId(), marked.participantId(), marked.participantType(),
-          ParticipantAvailabilityStatus.AVAILABLE.getValue());
-      case Event.UnmarkedAvailable unmarked ->
-        currentState().withStatus(ParticipantAvailabilityStatus.UNAVAILABLE.getValue());
-      case Event.Booked booked -> currentState().withStatus(ParticipantAvailabilityStatus.BOOKED.getValue());
-      case Event.Canceled canceled -> currentState().withStatus(ParticipantAvailabilityStatus.AVAILABLE.getValue());
+          marked.slotId(), marked.participantId(), marked.participantType(), ParticipantAvailabilityStatus.AVAILABLE,
+          currentState() == null ? null : currentState().bookingId());
+      case Event.UnmarkedAvailable unmarked -> currentState().withStatus(ParticipantAvailabilityStatus.UNAVAILABLE);
+      case Event.Booked booked -> currentState().withBooking(ParticipantAvailabilityStatus.BOOKED, booked.bookingId());
+      // like the slot's Timeslot, a canceled participant is neither booked nor
+      // available until it is marked available again
+      case Event.Canceled canceled ->
+        currentState().withBooking(ParticipantAvailabilityStatus.UNAVAILABLE, canceled.bookingId());
     };
   }
 }
@@ -7,13 +7,18 @@ import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
 import io.example.application.ParticipantSlotEntity.Event;
 import io.example.domain.Participant.ParticipantAvailabilityStatus;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotTime;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@ComponentId("view-participant-slots")
+// The view was renamed when rows gained startTime, so that it is rebuilt from
+// the ParticipantSlotEntity journals and existing rows get a start time too
+@ComponentId("view-participant-slots-v2")
 public class ParticipantSlotsView extends View {
 
   private static Logger logger = LoggerFactory.getLogger(ParticipantSlotsView.class);
@@ -22,51 +27,167 @@ public class ParticipantSlotsView extends View {
   public static class ParticipantSlotsViewUpdater extends TableUpdater<SlotRow> {
 
     public Effect<SlotRow> onEvent(ParticipantSlotEntity.Event event) {
+      PipelineMetrics.stage(PipelineMetrics.Stage.PARTICIPANT_SLOTS_VIEW)
+          .recordLag(PipelineMetrics.eventTime(updateContext().metadata()), true);
+      return rowUpdate(event);
+    }
+
+    private Effect<SlotRow> rowUpdate(ParticipantSlotEntity.Event event) {
       return switch (event) {
         case Event.MarkedAvailable marked ->
-          effects().updateRow(new SlotRow(marked.slotId(), marked.participantId(), marked.participantType().name(),
-              "", ParticipantAvailabilityStatus.AVAILABLE.getValue()));
+          effects().updateRow(row(marked.slotId(), marked.participantId(), marked.participantType(),
+              "", ParticipantAvailabilityStatus.AVAILABLE));
         case Event.UnmarkedAvailable unmarked ->
           effects()
-              .updateRow(new SlotRow(unmarked.slotId(), unmarked.participantId(), unmarked.participantType().name(),
-                  rowState().bookingId(), ParticipantAvailabilityStatus.UNAVAILABLE.getValue()));
+              .updateRow(row(unmarked.slotId(), unmarked.participantId(), unmarked.participantType(),
+                  rowState().bookingId(), ParticipantAvailabilityStatus.UNAVAILABLE));
         case Event.Booked booked ->
           effects()
-              .updateRow(new SlotRow(booked.slotId(), booked.participantId(), booked.participantType().name(),
-                  booked.bookingId(), ParticipantAvailabilityStatus.UNAVAILABLE.getValue()));
+              .updateRow(row(booked.slotId(), booked.participantId(), booked.participantType(),
+                  booked.bookingId(), ParticipantAvailabilityStatus.UNAVAILABLE));
         case Event.Canceled canceled ->
           effects()
-              .updateRow(new SlotRow(canceled.slotId(), canceled.participantId(), canceled.participantType().name(),
-                  canceled.bookingId(), ParticipantAvailabilityStatus.AVAILABLE.getValue()));
+              .updateRow(row(canceled.slotId(), canceled.participantId(), canceled.participantType(),
+                  canceled.bookingId(), ParticipantAvailabilityStatus.UNAVAILABLE));
       };
     }
+
+    private static SlotRow row(
+        String slotId, String participantId, ParticipantType participantType, String bookingId,
+        ParticipantAvailabilityStatus status) {
+      return new SlotRow(slotId, participantId, participantType, bookingId, status,
+          SlotTime.startOf(slotId).orElse(null));
+    }
   }
 
+  // startTime is derived from the slot ID (see SlotTime) and is null for
+  // slot IDs that do not follow the date/hour naming convention. The enums
+  // are stored as they were when they were strings: participantType by name,
+  // status by its lowercase value.
   public record SlotRow(
       String slotId,
       String participantId,
-      String participantType,
+      ParticipantType participantType,
       String bookingId,
-      String status) {
+      ParticipantAvailabilityStatus status,
+      Instant startTime) {
   }
 
-  public record ParticipantStatusInput(String participantId, String status) {
+  public record ParticipantStatusInput(String participantId, ParticipantAvailabilityStatus status) {
   }
 
   public record SlotList(List<SlotRow> slots) {
   }
 
-  @Query("SELECT * AS slots FROM  view_participant_slots WHERE participantId = :participantId")
+  // An empty pageToken requests the first page
+  public record ParticipantPageInput(String participantId, String pageToken, int pageSize) {
+  }
+
+  public record ParticipantStatusPageInput(String participantId, ParticipantAvailabilityStatus status, String pageToken, int pageSize) {
+  }
+
+  // Slots starting in [from, to)
+  public record ParticipantTimeRangeInput(String participantId, ParticipantAvailabilityStatus status, Instant from, Instant to) {
+  }
+
+  // The first `limit` slots starting at or after `from`
+  public record UpcomingSlotsInput(String participantId, ParticipantAvailabilityStatus status, Instant from, int limit) {
+  }
+
+  public record SlotIdsInput(List<String> slotIds) {
+  }
+
+  // nextPageToken is only meaningful when hasMore is true
+  public record SlotPage(List<SlotRow> slots, String nextPageToken, boolean hasMore) {
+  }
+
+  @Query("SELECT * AS slots FROM view_participant_slots_v2 WHERE participantId = :participantId")
   public QueryEffect<SlotList> getSlotsByParticipant(String participantId) {
     return queryResult();
   }
 
   @Query("""
-      SELECT * AS slots FROM view_participant_slots
+      SELECT * AS slots FROM view_participant_slots_v2
       WHERE participantId = :participantId
       AND status = :status
       """)
   public QueryEffect<SlotList> getSlotsByParticipantAndStatus(ParticipantStatusInput input) {
     return queryResult();
   }
+
+  @Query("""
+      SELECT * AS slots, next_page_token() AS nextPageToken, has_more() AS hasMore
+      FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      OFFSET page_token_offset(:pageToken)
+      LIMIT :pageSize
+      """)
+  public QueryEffect<SlotPage> getSlotPageByParticipant(ParticipantPageInput input) {
+    return queryResult();
+  }
+
+  @Query("""
+      SELECT * AS slots, next_page_token() AS nextPageToken, has_more() AS hasMore
+      FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      AND status = :status
+      OFFSET page_token_offset(:pageToken)
+      LIMIT :pageSize
+      """)
+  public QueryEffect<SlotPage> getSlotPageByParticipantAndStatus(ParticipantStatusPageInput input) {
+    return queryResult();
+  }
+
+  // Streams matching rows one by one instead of collecting them in a SlotList
+  @Query("""
+      SELECT * FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      AND status = :status
+      """)
+  public QueryStreamEffect<SlotRow> streamSlotsByParticipantAndStatus(ParticipantStatusInput input) {
+    return queryStreamResult();
+  }
+
+  @Query("""
+      SELECT * AS slots FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      AND status = :status
+      AND startTime >= :from
+      AND startTime < :to
+      ORDER BY startTime
+      """)
+  public QueryEffect<SlotList> getSlotsByParticipantBetween(ParticipantTimeRangeInput input) {
+    return queryResult();
+  }
+
+  @Query("""
+      SELECT * AS slots FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      AND status = :status
+      AND startTime >= :from
+      ORDER BY startTime
+      LIMIT :limit
+      """)
+  public QueryEffect<SlotList> getUpcomingSlotsByParticipant(UpcomingSlotsInput input) {
+    return queryResult();
+  }
+
+  // Emits the current rows of the slots and then every row change as it is
+  // applied to the view, for clients that follow a calendar live
+  @Query(value = """
+      SELECT * FROM view_participant_slots_v2
+      WHERE slotId = ANY(:slotIds)
+      """, streamUpdates = true)
+  public QueryStreamEffect<SlotRow> streamSlotChanges(SlotIdsInput input) {
+    return queryStreamResult();
+  }
+
+  // Same as streamSlotChanges, for all the slots of one participant
+  @Query(value = """
+      SELECT * FROM view_participant_slots_v2
+      WHERE participantId = :participantId
+      """, streamUpdates = true)
+  public QueryStreamEffect<SlotRow> streamParticipantSlotChanges(String participantId) {
+    return queryStreamResult();
+  }
 }
@@ -0,0 +1,247 @@
+package io.example.application;
+
+import akka.javasdk.Metadata;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process instrumentation for the booking -> participant pipeline:
+// BookingSlotEntity events are turned into ParticipantSlotEntity commands by
+// SlotToParticipantConsumer, whose events in turn feed ParticipantSlotsView.
+//
+// Each stage records how many events it handled, how long handling took and
+// how far behind the creation time of the event it consumes it ran (its stage
+// lag). Stage lag is per stage only: the view stage's lag starts at the
+// ParticipantSlotEntity event, which the consumer persists after the
+// BookingSlotEntity event, so no stage measures the lag from a BookingEvent
+// to the view row. Each snapshot names the event its lag is measured from.
+// The view's row update is applied by the runtime after onEvent returns, so
+// the view stage records no handling time.
+//
+// Components are instantiated per message, so the metrics live in static
+// state and cover the events handled by this service instance only.
+public final class PipelineMetrics {
+
+  public enum Stage {
+    SLOT_TO_PARTICIPANT_CONSUMER("slot-to-participant-consumer", "booking-slot-event"),
+    PARTICIPANT_SLOTS_VIEW("participant-slots-view", "participant-slot-event");
+
+    private final String label;
+    private final String lagMeasuredFrom;
+
+    Stage(String label, String lagMeasuredFrom) {
+      this.label = label;
+      this.lagMeasuredFrom = lagMeasuredFrom;
+    }
+
+    public String label() {
+      return label;
+    }
+
+    public String lagMeasuredFrom() {
+      return lagMeasuredFrom;
+    }
+  }
+
+  // Window over which events/sec is averaged
+  private static final int RATE_WINDOW_SECONDS = 10;
+
+  private static final Map<Stage, StageMetrics> STAGES = new EnumMap<>(Stage.class);
+
+  static {
+    for (Stage stage : Stage.values()) {
+      STAGES.put(stage, new StageMetrics(stage));
+    }
+  }
+
+  private PipelineMetrics() {
+  }
+
+  public static StageMetrics stage(Stage stage) {
+    return STAGES.get(stage);
+  }
+
+  public static List<StageSnapshot> snapshot() {
+    var snapshots = new ArrayList<StageSnapshot>(STAGES.size());
+    STAGES.values().forEach(stage -> snapshots.add(stage.snapshot()));
+    return snapshots;
+  }
+
+  // The creation time of the event being handled, taken from its CloudEvent
+  // metadata. Empty when the metadata does not carry one.
+  public static Optional<Instant> eventTime(Metadata metadata) {
+    try {
+      return metadata.asCloudEvent().time().map(ZonedDateTime::toInstant);
+    } catch (RuntimeException ex) {
+      return Optional.empty();
+    }
+  }
+
+  public static final class StageMetrics {
+    private final Stage stage;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Histogram handlingMillis = new Histogram();
+    private final Histogram stageLagMillis = new Histogram();
+    private final RateMeter rate = new RateMeter(RATE_WINDOW_SECONDS);
+    private final AtomicLong lastStageLagMillis = new AtomicLong(-1);
+
+    private StageMetrics(Stage stage) {
+      this.stage = stage;
+    }
+
+    // Records one handled event; eventTime is when the event was created
+    public void record(long handlingNanos, Optional<Instant> eventTime, boolean succeeded) {
+      handlingMillis.record(TimeUnit.NANOSECONDS.toMillis(handlingNanos));
+      recordLag(eventTime, succeeded);
+    }
+
+    // Records one handled event without a handling time, for stages whose
+    // handling runs outside the component and cannot be timed from it
+    public void recordLag(Optional<Instant> eventTime, boolean succeeded) {
+      (succeeded ? processed : failed).increment();
+      rate.mark(System.currentTimeMillis());
+      eventTime.ifPresent(created -> {
+        long lag = Math.max(0, System.currentTimeMillis() - created.toEpochMilli());
+        stageLagMillis.record(lag);
+        lastStageLagMillis.set(lag);
+      });
+    }
+
+    StageSnapshot snapshot() {
+      return new StageSnapshot(
+          stage.label(),
+          stage.lagMeasuredFrom(),
+          processed.sum(),
+          failed.sum(),
+          rate.perSecond(System.currentTimeMillis()),
+          lastStageLagMillis.get(),
+          handlingMillis.snapshot(),
+          stageLagMillis.snapshot());
+    }
+  }
+
+  // A fixed-bucket histogram of millisecond values. Percentiles are reported
+  // as the upper bound of the bucket they fall in.
+  static final class Histogram {
+    static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000,
+        60_000};
+
+    // one bucket per bound plus an overflow bucket
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram() {
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(long millis) {
+      buckets[bucketOf(millis)].increment();
+      count.increment();
+      sum.add(millis);
+      max.accumulateAndGet(millis, Math::max);
+    }
+
+    HistogramSnapshot snapshot() {
+      long[] counts = new long[buckets.length];
+      long total = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        counts[i] = buckets[i].sum();
+        total += counts[i];
+      }
+      var byBound = new LinkedHashMap<String, Long>();
+      for (int i = 0; i < counts.length; i++) {
+        byBound.put(i < BOUNDS_MILLIS.length ? "le_" + BOUNDS_MILLIS[i] : "le_inf", counts[i]);
+      }
+      double mean = total == 0 ? 0 : (double) sum.sum() / total;
+      return new HistogramSnapshot(
+          total, mean, percentile(counts, total, 0.50), percentile(counts, total, 0.99), max.get(), byBound);
+    }
+
+    private long percentile(long[] counts, long total, double quantile) {
+      if (total == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(quantile * total);
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return i < BOUNDS_MILLIS.length ? BOUNDS_MILLIS[i] : max.get();
+        }
+      }
+      return max.get();
+    }
+
+    private static int bucketOf(long millis) {
+      for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+        if (millis <= BOUNDS_MILLIS[i]) {
+          return i;
+        }
+      }
+      return BOUNDS_MILLIS.length;
+    }
+  }
+
+  // Counts events in one-second buckets over a sliding window
+  static final class RateMeter {
+    private final long[] counts;
+    private final long[] seconds;
+
+    RateMeter(int windowSeconds) {
+      // one extra bucket for the second currently being filled
+      this.counts = new long[windowSeconds + 1];
+      this.seconds = new long[windowSeconds + 1];
+    }
+
+    synchronized void mark(long nowMillis) {
+      long second = nowMillis / 1000;
+      int index = (int) (second % counts.length);
+      if (seconds[index] != second) {
+        seconds[index] = second;
+        counts[index] = 0;
+      }
+      counts[index]++;
+    }
+
+    // Average over the last complete seconds of the window
+    synchronized double perSecond(long nowMillis) {
+      long current = nowMillis / 1000;
+      int window = counts.length - 1;
+      long total = 0;
+      for (int i = 0; i < counts.length; i++) {
+        if (seconds[i] < current && seconds[i] >= current - window) {
+          total += counts[i];
+        }
+      }
+      return (double) total / window;
+    }
+  }
+
+  public record StageSnapshot(
+      String stage,
+      String lagMeasuredFrom,
+      long processed,
+      long failed,
+      double eventsPerSecond,
+      long lastStageLagMillis,
+      HistogramSnapshot handlingMillis,
+      HistogramSnapshot stageLagMillis) {
+  }
+
+  public record HistogramSnapshot(
+      long count, double mean, long p50, long p99, long max, Map<String, Long> buckets) {
+  }
+}
@@ -0,0 +1,148 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.client.ComponentClient;
+import io.example.domain.Participant;
+import io.example.domain.Timeslot;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Coordinates a booking in a slot whose availability is sharded by
+// participant type (see SlotShardEntity). The three participants are claimed
+// in their shards concurrently and the booking is then recorded in the
+// BookingSlotEntity. If a claim or the recording fails, the claims are
+// released again and the booking fails with that error. As for any booking,
+// the participants' calendars are checked for overlapping bookings first
+// (see SlotBooking).
+//
+// Every step is idempotent on the booking ID, so a failed booking can be
+// retried as a whole.
+//
+// Before its first sharded availability change, a slot is switched to
+// sharded availability in its BookingSlotEntity (see enableSharding), which
+// then rejects the regular availability and booking commands.
+public final class ShardedSlotBooking {
+
+  private static final Logger logger = LoggerFactory.getLogger(ShardedSlotBooking.class);
+
+  private static final int MAX_KNOWN_SHARDED = 10_000;
+
+  // Slots known to be sharded, which never stop being so, so marks on hot
+  // slots do not all queue behind the BookingSlotEntity again. Least recently
+  // used first.
+  private static final Set<String> KNOWN_SHARDED = Collections.synchronizedSet(Collections.newSetFromMap(
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+          return size() > MAX_KNOWN_SHARDED;
+        }
+      }));
+
+  private final ComponentClient componentClient;
+  private final SlotBooking slotBooking;
+
+  public ShardedSlotBooking(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+    this.slotBooking = new SlotBooking(componentClient);
+  }
+
+  public CompletionStage<Done> markAvailable(String slotId, Participant participant) {
+    return enableSharding(slotId).thenCompose(done -> componentClient
+        .forEventSourcedEntity(SlotShardEntity.shardId(slotId, participant.participantType()))
+        .method(SlotShardEntity::markAvailable)
+        .invokeAsync(participant.id()));
+  }
+
+  private CompletionStage<Done> enableSharding(String slotId) {
+    if (KNOWN_SHARDED.contains(slotId)) {
+      return CompletableFuture.completedFuture(Done.getInstance());
+    }
+    return componentClient
+        .forEventSourcedEntity(slotId)
+        .method(BookingSlotEntity::enableSharding)
+        .invokeAsync()
+        .thenApply(done -> {
+          KNOWN_SHARDED.add(slotId);
+          return done;
+        });
+  }
+
+  public CompletionStage<Done> unmarkAvailable(String slotId, Participant participant) {
+    return componentClient
+        .forEventSourcedEntity(SlotShardEntity.shardId(slotId, participant.participantType()))
+        .method(SlotShardEntity::unmarkAvailable)
+        .invokeAsync(participant.id());
+  }
+
+  public CompletionStage<Done> book(String slotId, BookingSlotEntity.Command.BookReservation booking,
+      List<Participant> participants) {
+    return slotBooking.checkSchedule(slotId, booking)
+        .thenCompose(done -> claimAndRecord(slotId, booking, participants));
+  }
+
+  private CompletionStage<Done> claimAndRecord(String slotId, BookingSlotEntity.Command.BookReservation booking,
+      List<Participant> participants) {
+    var claims = participants.stream()
+        .map(participant -> shardCall(slotId, participant, booking.bookingId(), true).toCompletableFuture())
+        .toList();
+
+    return CompletableFuture.allOf(claims.toArray(CompletableFuture[]::new))
+        .thenCompose(ignored -> componentClient
+            .forEventSourcedEntity(slotId)
+            .method(BookingSlotEntity::recordClaimedBooking)
+            .invokeAsync(booking))
+        .handle((done, ex) -> ex)
+        .thenCompose(failure -> {
+          if (failure == null) {
+            return CompletableFuture.completedFuture(Done.getInstance());
+          }
+          logger.info("Sharded booking {} in slot {} failed, releasing claims", booking.bookingId(), slotId);
+          return releaseUnrecorded(slotId, booking.bookingId(), participants).handle((done, releaseFailure) -> {
+            if (releaseFailure != null) {
+              logger.warn("Failed to release claims of booking {} in slot {}", booking.bookingId(), slotId,
+                  releaseFailure);
+            }
+            throw failure instanceof CompletionException ? (CompletionException) failure
+                : new CompletionException(failure);
+          });
+        });
+  }
+
+  // Releases the claims of the participants that the slot does not hold
+  // under the booking ID. The ones it holds were recorded, by this attempt
+  // before its reply was lost or by an earlier booking reusing the ID, and
+  // must stay claimed.
+  private CompletionStage<Done> releaseUnrecorded(String slotId, String bookingId, List<Participant> participants) {
+    return componentClient
+        .forEventSourcedEntity(slotId)
+        .method(BookingSlotEntity::getSlot)
+        .invokeAsync()
+        .thenCompose(slot -> {
+          var recorded = slot.findBooking(bookingId).stream().map(Timeslot.Booking::participant).toList();
+          var releases = participants.stream()
+              .filter(participant -> !recorded.contains(participant))
+              .map(participant -> shardCall(slotId, participant, bookingId, false).toCompletableFuture())
+              .toArray(CompletableFuture[]::new);
+          return CompletableFuture.allOf(releases).thenApply(done -> Done.getInstance());
+        });
+  }
+
+  private CompletionStage<Done> shardCall(String slotId, Participant participant, String bookingId, boolean claim) {
+    var shard = componentClient
+        .forEventSourcedEntity(SlotShardEntity.shardId(slotId, participant.participantType()));
+    var request = new SlotShardEntity.Claim(participant.id(), bookingId);
+    return claim
+        ? shard.method(SlotShardEntity::claim).invokeAsync(request)
+        : shard.method(SlotShardEntity::release).invokeAsync(request);
+  }
+}
@@ -0,0 +1,60 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.consumer.Consumer;
+import io.example.domain.BookingEvent;
+import io.example.domain.Participant;
+import java.time.Instant;
+
+// Keeps the in-process BookingRejectionCache in line with the booking slot
+// journal: participants that get booked or withdraw their availability are
+// recorded as unavailable, and any new availability or cancellation removes
+// the entry again. Every event also invalidates the slot's cached getSlot
+// response in SlotResponseCache.
+@ComponentId("slot-availability-cache-consumer")
+@Consume.FromEventSourcedEntity(BookingSlotEntity.class)
+public class SlotAvailabilityCacheConsumer extends Consumer {
+
+  public Effect onEvent(BookingEvent event) {
+    var cache = BookingRejectionCache.shared();
+    SlotResponseCache.shared().invalidate(slotIdOf(event));
+    var eventTime = PipelineMetrics.eventTime(messageContext().metadata()).orElseGet(Instant::now);
+    update(cache, event, eventTime);
+
+    return effects().done();
+  }
+
+  private static void update(BookingRejectionCache cache, BookingEvent event, Instant eventTime) {
+    switch (event) {
+      case BookingEvent.BookingCreated created ->
+        created.participantEvents().forEach(booked -> update(cache, booked, eventTime));
+      case BookingEvent.BookingCanceled canceled ->
+        canceled.participantEvents().forEach(participant -> update(cache, participant, eventTime));
+      case BookingEvent.ParticipantBooked booked ->
+        cache.markBooked(booked.slotId(), new Participant(booked.participantId(), booked.participantType()),
+            booked.bookingId(), eventTime);
+      case BookingEvent.ParticipantUnmarkedAvailable unmarked ->
+        cache.markUnavailable(unmarked.slotId(),
+            new Participant(unmarked.participantId(), unmarked.participantType()), eventTime);
+      case BookingEvent.ParticipantMarkedAvailable marked ->
+        cache.invalidate(marked.slotId(), new Participant(marked.participantId(), marked.participantType()));
+      case BookingEvent.ParticipantCanceled canceled ->
+        cache.invalidate(canceled.slotId(), new Participant(canceled.participantId(), canceled.participantType()));
+      case BookingEvent.ShardingEnabled enabled -> {
+      }
+    }
+  }
+
+  private static String slotIdOf(BookingEvent event) {
+    return switch (event) {
+      case BookingEvent.BookingCreated created -> created.slotId();
+      case BookingEvent.BookingCanceled canceled -> canceled.slotId();
+      case BookingEvent.ParticipantBooked booked -> booked.slotId();
+      case BookingEvent.ParticipantUnmarkedAvailable unmarked -> unmarked.slotId();
+      case BookingEvent.ParticipantMarkedAvailable marked -> marked.slotId();
+      case BookingEvent.ParticipantCanceled canceled -> canceled.slotId();
+      case BookingEvent.ShardingEnabled enabled -> enabled.slotId();
+    };
+  }
+}
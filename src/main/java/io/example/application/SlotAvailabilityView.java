@@ -0,0 +1,56 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.example.application.ParticipantSlotEntity.Event;
+import io.example.domain.Participant.ParticipantType;
+
+import java.util.List;
+
+// Slot-centric read model answering "who can fly in slot X": one row per
+// participant that is currently available in a slot. Rows are removed as
+// soon as the participant withdraws or gets booked, so queries never have to
+// filter through unavailable or booked participants and never touch the
+// BookingSlotEntity.
+@ComponentId("view-slot-availability")
+public class SlotAvailabilityView extends View {
+
+  @Consume.FromEventSourcedEntity(ParticipantSlotEntity.class)
+  public static class SlotAvailabilityUpdater extends TableUpdater<AvailableParticipant> {
+
+    public Effect<AvailableParticipant> onEvent(ParticipantSlotEntity.Event event) {
+      return switch (event) {
+        case Event.MarkedAvailable marked ->
+          effects().updateRow(
+              new AvailableParticipant(marked.slotId(), marked.participantId(), marked.participantType()));
+        case Event.UnmarkedAvailable unmarked -> effects().deleteRow();
+        case Event.Booked booked -> effects().deleteRow();
+        // the row went away with the booking, and a canceled participant is
+        // not available in the slot again until it is marked available
+        case Event.Canceled canceled -> effects().ignore();
+      };
+    }
+  }
+
+  public record AvailableParticipant(String slotId, String participantId, ParticipantType participantType) {
+  }
+
+  public record SlotTypeInput(String slotId, ParticipantType participantType) {
+  }
+
+  public record AvailableParticipants(List<AvailableParticipant> participants) {
+  }
+
+  @Query("""
+      SELECT * AS participants FROM view_slot_availability
+      WHERE slotId = :slotId
+      AND participantType = :participantType
+      ORDER BY participantId
+      """)
+  public QueryEffect<AvailableParticipants> getAvailableParticipants(SlotTypeInput input) {
+    return queryResult();
+  }
+}
@@ -0,0 +1,68 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.client.ComponentClient;
+import io.example.domain.SlotTime;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// The booking path shared by every way of booking a participant triple into
+// a slot: single bookings, recurring bookings, multi-slot workflows and
+// sharded slots. Before the slot is booked, the calendars of the three
+// participants are checked, concurrently, for bookings in other slots
+// overlapping this one.
+//
+// A conflict fails the booking with an IllegalArgumentException carrying
+// ParticipantCalendarEntity.SCHEDULE_CONFLICT, the same way the slot entity
+// rejects a booking. Calendars are updated from the booking journal, so this
+// is a best-effort check that catches all but near-simultaneous conflicting
+// bookings.
+public final class SlotBooking {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlotBooking.class);
+
+  private final ComponentClient componentClient;
+
+  public SlotBooking(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+  }
+
+  public CompletionStage<Done> book(String slotId, BookingSlotEntity.Command.BookReservation booking) {
+    return checkSchedule(slotId, booking)
+        .thenCompose(done -> componentClient
+            .forEventSourcedEntity(slotId)
+            .method(BookingSlotEntity::bookSlot)
+            .invokeAsync(booking));
+  }
+
+  // Completes when none of the participants is booked in an overlapping slot.
+  // Slots whose ID carries no start time cannot overlap anything.
+  public CompletionStage<Done> checkSchedule(String slotId, BookingSlotEntity.Command.BookReservation booking) {
+    var start = SlotTime.startOf(slotId);
+    if (start.isEmpty()) {
+      return CompletableFuture.completedFuture(Done.getInstance());
+    }
+
+    var checks = List.of(booking.studentId(), booking.instructorId(), booking.aircraftId()).stream()
+        .map(participantId -> componentClient
+            .forEventSourcedEntity(participantId)
+            .method(ParticipantCalendarEntity::findConflicts)
+            .invokeAsync(new ParticipantCalendarEntity.Commands.FindConflicts(slotId, start.get()))
+            .toCompletableFuture())
+        .toList();
+
+    return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> {
+          if (checks.stream().anyMatch(check -> !check.join().entries().isEmpty())) {
+            logger.info("Booking {} in slot {} rejected for overlapping bookings", booking.bookingId(), slotId);
+            throw new IllegalArgumentException(ParticipantCalendarEntity.SCHEDULE_CONFLICT);
+          }
+          return Done.getInstance();
+        });
+  }
+}
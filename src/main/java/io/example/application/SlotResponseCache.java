@@ -0,0 +1,122 @@
+package io.example.application;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+// A size-bounded, in-process cache of serialized getSlot responses, keyed by
+// slot ID and versioned by the BookingSlotEntity's event sequence number.
+// FlightEndpoint reads through it and derives the response ETag from the
+// version, so unchanged slots are served, or answered with 304, without a
+// round-trip to the entity or re-serializing the Timeslot.
+//
+// SlotAvailabilityCacheConsumer invalidates a slot on every BookingEvent.
+// That only reaches the instance running the consumer, so entries also
+// expire `ttl` after they were cached, bounding staleness on other instances.
+//
+// A read that started before an invalidation may return the old version
+// after it, so callers take invalidationCount() before reading and pass it
+// to put, which refuses the response if the slot was invalidated since.
+public final class SlotResponseCache {
+
+  private static final int MAX_ENTRIES = 10_000;
+  private static final Duration TTL = Duration.ofSeconds(2);
+
+  private static final SlotResponseCache SHARED =
+      new SlotResponseCache(MAX_ENTRIES, TTL, System::currentTimeMillis);
+
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LongSupplier clockMillis;
+  // least recently used first
+  private final LinkedHashMap<String, Entry> entries;
+  // the invalidation count right after each slot's latest invalidation,
+  // least recently invalidated first; slots dropped from it count as
+  // invalidated at evictedInvalidation, so put stays safe for them
+  private final LinkedHashMap<String, Long> invalidatedAt;
+  private long invalidations;
+  private long evictedInvalidation;
+
+  SlotResponseCache(int maxEntries, Duration ttl, LongSupplier clockMillis) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttl.toMillis();
+    this.clockMillis = clockMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > SlotResponseCache.this.maxEntries;
+      }
+    };
+    this.invalidatedAt = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+        if (size() <= SlotResponseCache.this.maxEntries) {
+          return false;
+        }
+        evictedInvalidation = Math.max(evictedInvalidation, eldest.getValue());
+        return true;
+      }
+    };
+  }
+
+  public static SlotResponseCache shared() {
+    return SHARED;
+  }
+
+  public synchronized Optional<CachedSlot> get(String slotId) {
+    Entry entry = entries.get(slotId);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.expiresAt() <= clockMillis.getAsLong()) {
+      entries.remove(slotId);
+      return Optional.empty();
+    }
+    return Optional.of(entry.slot());
+  }
+
+  public synchronized long invalidationCount() {
+    return invalidations;
+  }
+
+  // Never caches a read that started, at readStartedAt, before the slot's
+  // latest invalidation, and never replaces a newer version with an older
+  // one, which a slow read racing a faster one could otherwise do
+  public synchronized void put(String slotId, CachedSlot slot, long readStartedAt) {
+    if (invalidatedAt.getOrDefault(slotId, evictedInvalidation) > readStartedAt) {
+      return;
+    }
+    Entry existing = entries.get(slotId);
+    if (existing == null || existing.slot().version() <= slot.version()) {
+      entries.put(slotId, new Entry(slot, clockMillis.getAsLong() + ttlMillis));
+    }
+  }
+
+  public synchronized void invalidate(String slotId) {
+    entries.remove(slotId);
+    invalidations++;
+    invalidatedAt.remove(slotId);
+    invalidatedAt.put(slotId, invalidations);
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  // json is the serialized Timeslot and must not be modified
+  public record CachedSlot(long version, byte[] json) {
+
+    public String etag() {
+      return etagOf(version);
+    }
+  }
+
+  public static String etagOf(long version) {
+    return "\"" + version + "\"";
+  }
+
+  private record Entry(CachedSlot slot, long expiresAt) {
+  }
+}
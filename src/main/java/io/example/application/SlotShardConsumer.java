@@ -0,0 +1,36 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import io.example.domain.BookingEvent;
+
+// Forwards availability changes of sharded slots to the participant slot
+// entities, as SlotToParticipantConsumer does for BookingSlotEntity. Claims
+// and releases are internal to the sharded booking: the booking itself
+// reaches the participants through the BookingSlotEntity journal.
+@ComponentId("slot-shard-consumer")
+@Consume.FromEventSourcedEntity(SlotShardEntity.class)
+public class SlotShardConsumer extends Consumer {
+
+  private final ComponentClient client;
+
+  public SlotShardConsumer(ComponentClient client) {
+    this.client = client;
+  }
+
+  public Effect onEvent(BookingEvent event) {
+    return switch (event) {
+      case BookingEvent.ParticipantMarkedAvailable marked ->
+        effects().asyncDone(SlotToParticipantConsumer.dispatch(client, marked));
+      case BookingEvent.ParticipantUnmarkedAvailable unmarked ->
+        effects().asyncDone(SlotToParticipantConsumer.dispatch(client, unmarked));
+      case BookingEvent.BookingCreated created -> effects().done();
+      case BookingEvent.BookingCanceled canceled -> effects().done();
+      case BookingEvent.ParticipantBooked booked -> effects().done();
+      case BookingEvent.ParticipantCanceled canceled -> effects().done();
+      case BookingEvent.ShardingEnabled enabled -> effects().done();
+    };
+  }
+}
@@ -0,0 +1,120 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
+import io.example.domain.BookingEvent;
+import io.example.domain.Participant;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.Timeslot;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// The availability of one participant type in a hot slot. With sharded
+// availability, a slot's marks and unmarks are spread over three of these
+// (one per participant type) instead of all queueing behind a single
+// BookingSlotEntity.
+//
+// A sharded booking first claims each participant in its shard, which takes
+// the participant out of the shard's availability, so no participant can be
+// claimed by two bookings. Only when all three claims succeed is the booking
+// recorded in the BookingSlotEntity; otherwise the successful claims are
+// released again (see ShardedSlotBooking).
+//
+// The shard reuses Timeslot and BookingEvent: a claim is a ParticipantBooked
+// event and a release is a ParticipantCanceled followed by a
+// ParticipantMarkedAvailable.
+@ComponentId("slot-shard")
+public class SlotShardEntity extends EventSourcedEntity<Timeslot, BookingEvent> {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlotShardEntity.class);
+  private static final char SEPARATOR = '#';
+
+  private final String slotId;
+  private final ParticipantType participantType;
+
+  public SlotShardEntity(EventSourcedEntityContext context) {
+    var entityId = context.entityId();
+    int separator = entityId.lastIndexOf(SEPARATOR);
+    this.slotId = entityId.substring(0, separator);
+    this.participantType = ParticipantType.valueOf(entityId.substring(separator + 1).toUpperCase());
+  }
+
+  public static String shardId(String slotId, ParticipantType participantType) {
+    return slotId + SEPARATOR + participantType.name().toLowerCase();
+  }
+
+  public Effect<Done> markAvailable(String participantId) {
+    if (currentState().isWaiting(participantId, participantType)) {
+      return effects().reply(Done.getInstance());
+    }
+    return effects()
+        .persist(new BookingEvent.ParticipantMarkedAvailable(slotId, participantId, participantType))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  public Effect<Done> unmarkAvailable(String participantId) {
+    if (!currentState().isWaiting(participantId, participantType)) {
+      return effects().reply(Done.getInstance());
+    }
+    return effects()
+        .persist(new BookingEvent.ParticipantUnmarkedAvailable(slotId, participantId, participantType))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  // Takes the participant out of the shard's availability for the booking.
+  // Claiming again for the same booking is a no-op.
+  public Effect<Done> claim(Claim claim) {
+    var participant = new Participant(claim.participantId(), participantType);
+    if (isClaimedBy(participant, claim.bookingId())) {
+      return effects().reply(Done.getInstance());
+    }
+    if (!currentState().isWaiting(claim.participantId(), participantType)) {
+      return effects().error(BookingSlotEntity.PARTICIPANTS_UNAVAILABLE);
+    }
+    return effects()
+        .persist(new BookingEvent.ParticipantBooked(slotId, claim.participantId(), participantType, claim.bookingId()))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  // Undoes a claim of a booking that could not be completed, making the
+  // participant available again. Releasing an unknown claim is a no-op.
+  public Effect<Done> release(Claim claim) {
+    var participant = new Participant(claim.participantId(), participantType);
+    if (!isClaimedBy(participant, claim.bookingId())) {
+      return effects().reply(Done.getInstance());
+    }
+    logger.info("Releasing {} in slot {} from booking {}", participant, slotId, claim.bookingId());
+    return effects()
+        .persistAll(List.of(
+            new BookingEvent.ParticipantCanceled(slotId, claim.participantId(), participantType, claim.bookingId()),
+            new BookingEvent.ParticipantMarkedAvailable(slotId, claim.participantId(), participantType)))
+        .thenReply(newState -> Done.getInstance());
+  }
+
+  public ReadOnlyEffect<Timeslot> getShard() {
+    return effects().reply(currentState());
+  }
+
+  private boolean isClaimedBy(Participant participant, String bookingId) {
+    return currentState().findBooking(bookingId).stream()
+        .anyMatch(booking -> booking.participant().equals(participant));
+  }
+
+  @Override
+  public Timeslot emptyState() {
+    return Timeslot.empty();
+  }
+
+  @Override
+  public Timeslot applyEvent(BookingEvent event) {
+    return currentState().apply(event);
+  }
+
+  public record Claim(String participantId, String bookingId) {
+  }
+}
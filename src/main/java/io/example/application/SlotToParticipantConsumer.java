@@ -1,10 +1,14 @@
 package io.example.application;
 
+import akka.Done;
 import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.annotations.Consume;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.consumer.Consumer;
 import io.example.domain.BookingEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.example.application.ParticipantSlotEntity.*;
@@ -23,40 +27,72 @@ public class SlotToParticipantConsumer extends Consumer {
     this.client = client;
   }
 
+  // The downstream command is issued asynchronously and the effect completes
+  // when the participant slot entity has replied, so no thread is blocked
+  // while waiting for it. A failed command fails the effect and the event is
+  // redelivered.
   public Effect onEvent(BookingEvent event) {
-    switch (event) {
+    var eventTime = PipelineMetrics.eventTime(messageContext().metadata());
+    long start = System.nanoTime();
+
+    return effects().asyncDone(dispatch(client, event).whenComplete((done, ex) -> PipelineMetrics
+        .stage(PipelineMetrics.Stage.SLOT_TO_PARTICIPANT_CONSUMER)
+        .record(System.nanoTime() - start, eventTime, ex == null)));
+  }
+
+  // A booking or cancellation of the whole triple is split into its three
+  // per-participant commands, which are issued concurrently
+  static CompletionStage<Done> dispatch(ComponentClient client, BookingEvent event) {
+    return switch (event) {
+      case BookingEvent.BookingCreated created -> dispatchAll(client, created.participantEvents());
+      case BookingEvent.BookingCanceled canceled -> dispatchAll(client, canceled.participantEvents());
       case BookingEvent.ParticipantBooked booked ->
         client.forEventSourcedEntity(participantSlotId(event))
             .method(ParticipantSlotEntity::book)
-            .invoke(new Commands.Book(booked.slotId(), booked.participantId(), booked.participantType(),
+            .invokeAsync(new Commands.Book(booked.slotId(), booked.participantId(), booked.participantType(),
                 booked.bookingId()));
       case BookingEvent.ParticipantCanceled cancelled ->
         client.forEventSourcedEntity(participantSlotId(event))
             .method(ParticipantSlotEntity::cancel)
-            .invoke(new Commands.Cancel(cancelled.slotId(), cancelled.participantId(), cancelled.participantType(),
-                cancelled.bookingId()));
+            .invokeAsync(new Commands.Cancel(cancelled.slotId(), cancelled.participantId(),
+                cancelled.participantType(), cancelled.bookingId()));
       case BookingEvent.ParticipantMarkedAvailable participant ->
         client.forEventSourcedEntity(participantSlotId(event))
             .method(ParticipantSlotEntity::markAvailable)
-            .invoke(new Commands.MarkAvailable(participant.slotId(), participant.participantId(),
+            .invokeAsync(new Commands.MarkAvailable(participant.slotId(), participant.participantId(),
                 participant.participantType()));
       case BookingEvent.ParticipantUnmarkedAvailable participant ->
         client.forEventSourcedEntity(participantSlotId(event))
             .method(ParticipantSlotEntity::unmarkAvailable)
-            .invoke(new Commands.UnmarkAvailable(participant.slotId(), participant.participantId(),
+            .invokeAsync(new Commands.UnmarkAvailable(participant.slotId(), participant.participantId(),
                 participant.participantType()));
-    }
-    ;
+      // sharded availability reaches the participants through SlotShardConsumer
+      case BookingEvent.ShardingEnabled enabled -> CompletableFuture.completedFuture(Done.getInstance());
+    };
+  }
 
-    return effects().done();
+  private static CompletionStage<Done> dispatchAll(ComponentClient client, List<? extends BookingEvent> events) {
+    var commands = events.stream()
+        .map(event -> dispatch(client, event).toCompletableFuture())
+        .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(commands).thenApply(ignored -> Done.getInstance());
   }
 
   // Participant slots are keyed by a derived key made up of
   // {slotId}-{participantId}
   // We don't need the participant type here because the participant IDs
   // should always be unique/UUIDs
-  private String participantSlotId(BookingEvent event) {
+  //
+  // Aggregate events span three participant slots; use the IDs of their
+  // participantEvents() instead.
+  static String participantSlotId(BookingEvent event) {
     return switch (event) {
+      case BookingEvent.BookingCreated evt ->
+        throw new IllegalArgumentException("BookingCreated has no single participant slot");
+      case BookingEvent.BookingCanceled evt ->
+        throw new IllegalArgumentException("BookingCanceled has no single participant slot");
+      case BookingEvent.ShardingEnabled evt ->
+        throw new IllegalArgumentException("ShardingEnabled has no participant slot");
       case BookingEvent.ParticipantBooked evt -> evt.slotId() + "-" + evt.participantId();
       case BookingEvent.ParticipantUnmarkedAvailable evt ->
         evt.slotId() + "-" + evt.participantId();
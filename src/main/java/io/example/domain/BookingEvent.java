@@ -1,28 +1,92 @@
 package io.example.domain;
 
+import akka.javasdk.annotations.Migration;
 import akka.javasdk.annotations.TypeName;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.example.domain.Participant.ParticipantType;
+import java.util.List;
 
-// The list of all events emitted by the BookingSlotEntity
+// The list of all events emitted by the BookingSlotEntity. Fields are
+// persisted under compact names; see CompactEventMigration.
+//
+// A booking and its cancellation are each persisted as one event carrying
+// the whole student/instructor/aircraft triple. Slots booked before that
+// hold one ParticipantBooked or ParticipantCanceled per participant, which
+// are still applied on replay and handled by the consumers.
 public sealed interface BookingEvent {
 
+  @Migration(CompactEventMigration.class)
   @TypeName("slot-reserved")
   record ParticipantMarkedAvailable(
-      String slotId, String participantId, ParticipantType participantType)
+      @JsonProperty("s") String slotId,
+      @JsonProperty("p") String participantId,
+      @JsonProperty("t") ParticipantType participantType)
       implements BookingEvent {}
 
+  @Migration(CompactEventMigration.class)
   @TypeName("slot-unreserved")
   record ParticipantUnmarkedAvailable(
-      String slotId, String participantId, ParticipantType participantType)
+      @JsonProperty("s") String slotId,
+      @JsonProperty("p") String participantId,
+      @JsonProperty("t") ParticipantType participantType)
       implements BookingEvent {}
 
+  @Migration(CompactEventMigration.class)
   @TypeName("reservation-booked")
   record ParticipantBooked(
-      String slotId, String participantId, ParticipantType participantType, String bookingId)
+      @JsonProperty("s") String slotId,
+      @JsonProperty("p") String participantId,
+      @JsonProperty("t") ParticipantType participantType,
+      @JsonProperty("b") String bookingId)
       implements BookingEvent {}
 
+  @Migration(CompactEventMigration.class)
   @TypeName("booking-participant-canceled")
   record ParticipantCanceled(
-      String slotId, String participantId, ParticipantType participantType, String bookingId)
+      @JsonProperty("s") String slotId,
+      @JsonProperty("p") String participantId,
+      @JsonProperty("t") ParticipantType participantType,
+      @JsonProperty("b") String bookingId)
       implements BookingEvent {}
+
+  @TypeName("booking-created")
+  record BookingCreated(
+      @JsonProperty("s") String slotId,
+      @JsonProperty("b") String bookingId,
+      @JsonProperty("st") String studentId,
+      @JsonProperty("in") String instructorId,
+      @JsonProperty("ac") String aircraftId)
+      implements BookingEvent {
+
+    // The booking as the per-participant events it replaces
+    public List<ParticipantBooked> participantEvents() {
+      return List.of(
+          new ParticipantBooked(slotId, studentId, ParticipantType.STUDENT, bookingId),
+          new ParticipantBooked(slotId, instructorId, ParticipantType.INSTRUCTOR, bookingId),
+          new ParticipantBooked(slotId, aircraftId, ParticipantType.AIRCRAFT, bookingId));
+    }
+  }
+
+  @TypeName("booking-canceled")
+  record BookingCanceled(
+      @JsonProperty("s") String slotId,
+      @JsonProperty("b") String bookingId,
+      @JsonProperty("st") String studentId,
+      @JsonProperty("in") String instructorId,
+      @JsonProperty("ac") String aircraftId)
+      implements BookingEvent {
+
+    // The cancellation as the per-participant events it replaces
+    public List<ParticipantCanceled> participantEvents() {
+      return List.of(
+          new ParticipantCanceled(slotId, studentId, ParticipantType.STUDENT, bookingId),
+          new ParticipantCanceled(slotId, instructorId, ParticipantType.INSTRUCTOR, bookingId),
+          new ParticipantCanceled(slotId, aircraftId, ParticipantType.AIRCRAFT, bookingId));
+    }
+  }
+
+  // The slot keeps its availability in SlotShardEntity instances from now
+  // on. Persisted once, before the first sharded availability change.
+  @TypeName("sharding-enabled")
+  record ShardingEnabled(@JsonProperty("s") String slotId) implements BookingEvent {}
 }
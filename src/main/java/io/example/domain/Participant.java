@@ -1,5 +1,8 @@
 package io.example.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
 // A tuple-style class that holds a participant ID and the corresponding
 // type: student, instructor, or aircraft.
 public record Participant(String id, ParticipantType participantType) {
@@ -14,8 +17,18 @@ public record Participant(String id, ParticipantType participantType) {
     AVAILABLE,
     UNAVAILABLE;
 
+    private final String value = name().toLowerCase();
+
+    // Serialized as the lowercase value, as it was stored when statuses were
+    // plain strings, so existing snapshots and view rows stay readable
+    @JsonValue
     public String getValue() {
-      return this.name().toLowerCase();
+      return value;
+    }
+
+    @JsonCreator
+    public static ParticipantAvailabilityStatus fromValue(String value) {
+      return valueOf(value.trim().toUpperCase());
     }
   }
 }
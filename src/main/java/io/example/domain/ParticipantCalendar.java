@@ -0,0 +1,83 @@
+package io.example.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// The booked slots of one participant, kept sorted by start time so that
+// overlap checks and schedule reads are a binary search plus a scan over the
+// matching entries. Only slots with a known start time (see SlotTime) can be
+// placed on a calendar. Every slot spans SlotTime.LENGTH, so ordering by
+// start also orders by end.
+public record ParticipantCalendar(List<Entry> entries) {
+
+  private static final Comparator<Entry> BY_START =
+      Comparator.comparing(Entry::start).thenComparing(Entry::slotId);
+
+  public static ParticipantCalendar empty() {
+    return new ParticipantCalendar(List.of());
+  }
+
+  public ParticipantCalendar with(Entry entry) {
+    if (entries.contains(entry)) {
+      return this;
+    }
+    var updated = new ArrayList<Entry>(entries.size() + 1);
+    updated.addAll(entries);
+    updated.add(insertionPoint(entry), entry);
+    return new ParticipantCalendar(List.copyOf(updated));
+  }
+
+  public ParticipantCalendar without(String slotId, String bookingId) {
+    var updated = entries.stream()
+        .filter(entry -> !(entry.slotId().equals(slotId) && entry.bookingId().equals(bookingId)))
+        .toList();
+    return updated.size() == entries.size() ? this : new ParticipantCalendar(updated);
+  }
+
+  // Entries overlapping [from, to), in start order
+  public List<Entry> between(Instant from, Instant to) {
+    var matching = new ArrayList<Entry>();
+    // first entry ending after `from`, i.e. starting after from - LENGTH
+    var earliestStart = from.minus(SlotTime.LENGTH);
+    int low = 0;
+    int high = entries.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (entries.get(mid).start().isAfter(earliestStart)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    for (int i = low; i < entries.size() && entries.get(i).start().isBefore(to); i++) {
+      matching.add(entries.get(i));
+    }
+    return matching;
+  }
+
+  // Entries in other slots that overlap the slot starting at `start`
+  public List<Entry> conflictsWith(String slotId, Instant start) {
+    return between(start, start.plus(SlotTime.LENGTH)).stream()
+        .filter(entry -> !entry.slotId().equals(slotId))
+        .toList();
+  }
+
+  private int insertionPoint(Entry entry) {
+    int low = 0;
+    int high = entries.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (BY_START.compare(entries.get(mid), entry) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  public record Entry(String slotId, String bookingId, Instant start) {
+  }
+}
@@ -0,0 +1,431 @@
+package io.example.domain;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+// An immutable hash map implemented as a hash array mapped trie (HAMT).
+// Every update returns a new map that shares all untouched branches with the
+// previous one, so `plus`/`minus` cost O(log32 n) time and allocations instead
+// of copying the whole map. Null keys are not supported.
+//
+// Each trie level consumes 5 bits of the key's hash. A level is a bitmap node
+// whose slots hold either an entry or a child node; keys with identical hashes
+// end up in a collision node holding a small array of entries.
+public final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  // 32-bit hashes consumed 5 bits at a time, plus one collision level
+  private static final int MAX_DEPTH = 8;
+
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  public V get(Object key) {
+    return getOrDefault(key, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  public V getOrDefault(Object key, V defaultValue) {
+    Leaf leaf = find(key);
+    return leaf == null ? defaultValue : (V) leaf.value;
+  }
+
+  // Returns a map with the given mapping added or replaced. Returns this same
+  // instance when the key is already mapped to an equal value.
+  public PersistentHashMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Leaf leaf = new Leaf(key, value, hash(key));
+    boolean[] added = new boolean[1];
+    Node newRoot = root == null ? BitmapNode.of(leaf, 0) : put(root, leaf, 0, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot, root == null || added[0] ? size + 1 : size);
+  }
+
+  // Returns a map without the given key. Returns this same instance when the
+  // key is not present.
+  public PersistentHashMap<K, V> minus(Object key) {
+    if (key == null || root == null) {
+      return this;
+    }
+    Node newRoot = remove(root, key, hash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    for (Iterator<Leaf> it = new LeafIterator(root); it.hasNext(); ) {
+      Leaf leaf = it.next();
+      action.accept((K) leaf.key, (V) leaf.value);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Iterator<Map.Entry<K, V>> iterator() {
+    Iterator<Leaf> leaves = new LeafIterator(root);
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return leaves.hasNext();
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        Leaf leaf = leaves.next();
+        return Map.entry((K) leaf.key, (V) leaf.value);
+      }
+    };
+  }
+
+  // Iterates over the keys only, without allocating an entry per mapping
+  @SuppressWarnings("unchecked")
+  Iterator<K> keyIterator() {
+    Iterator<Leaf> leaves = new LeafIterator(root);
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return leaves.hasNext();
+      }
+
+      @Override
+      public K next() {
+        return (K) leaves.next().key;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+    return sb.append('}').toString();
+  }
+
+  private Leaf find(Object key) {
+    if (key == null) {
+      return null;
+    }
+    int hash = hash(key);
+    Node node = root;
+    int shift = 0;
+    while (node != null) {
+      if (node instanceof BitmapNode bitmapNode) {
+        int bit = bit(hash, shift);
+        if ((bitmapNode.bitmap & bit) == 0) {
+          return null;
+        }
+        Object slot = bitmapNode.slots[bitmapNode.index(bit)];
+        if (slot instanceof Leaf leaf) {
+          return leaf.matches(key, hash) ? leaf : null;
+        }
+        node = (Node) slot;
+        shift += BITS;
+      } else {
+        return ((CollisionNode) node).find(key);
+      }
+    }
+    return null;
+  }
+
+  private static Node put(Node node, Leaf leaf, int shift, boolean[] added) {
+    if (node instanceof CollisionNode collision) {
+      if (collision.hash == leaf.hash) {
+        return collision.put(leaf, added);
+      }
+      // A different hash reached this collision node: push the collision one
+      // level down behind a bitmap node and retry.
+      return put(BitmapNode.of(collision, collision.hash, shift), leaf, shift, added);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(leaf.hash, shift);
+    int index = bitmapNode.index(bit);
+    if ((bitmapNode.bitmap & bit) == 0) {
+      added[0] = true;
+      return bitmapNode.insert(index, bit, leaf);
+    }
+
+    Object slot = bitmapNode.slots[index];
+    if (slot instanceof Leaf existing) {
+      if (existing.matches(leaf.key, leaf.hash)) {
+        return Objects.equals(existing.value, leaf.value) ? bitmapNode : bitmapNode.replace(index, leaf);
+      }
+      added[0] = true;
+      return bitmapNode.replace(index, merge(existing, leaf, shift + BITS));
+    }
+
+    Node child = (Node) slot;
+    Node newChild = put(child, leaf, shift + BITS, added);
+    return newChild == child ? bitmapNode : bitmapNode.replace(index, newChild);
+  }
+
+  private static Node merge(Leaf a, Leaf b, int shift) {
+    if (a.hash == b.hash) {
+      return new CollisionNode(a.hash, new Leaf[] {a, b});
+    }
+    int indexA = (a.hash >>> shift) & MASK;
+    int indexB = (b.hash >>> shift) & MASK;
+    if (indexA == indexB) {
+      return new BitmapNode(1 << indexA, new Object[] {merge(a, b, shift + BITS)});
+    }
+    return new BitmapNode(
+        (1 << indexA) | (1 << indexB), indexA < indexB ? new Object[] {a, b} : new Object[] {b, a});
+  }
+
+  // Returns the node without the key, the same node if the key is absent, or
+  // null if the node became empty.
+  private static Node remove(Node node, Object key, int hash, int shift) {
+    if (node instanceof CollisionNode collision) {
+      return collision.remove(key, hash, shift);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(hash, shift);
+    if ((bitmapNode.bitmap & bit) == 0) {
+      return bitmapNode;
+    }
+    int index = bitmapNode.index(bit);
+    Object slot = bitmapNode.slots[index];
+    if (slot instanceof Leaf leaf) {
+      if (!leaf.matches(key, hash)) {
+        return bitmapNode;
+      }
+      return bitmapNode.slots.length == 1 ? null : bitmapNode.removeAt(index, bit);
+    }
+
+    Node child = (Node) slot;
+    Node newChild = remove(child, key, hash, shift + BITS);
+    if (newChild == child) {
+      return bitmapNode;
+    }
+    if (newChild == null) {
+      return bitmapNode.slots.length == 1 ? null : bitmapNode.removeAt(index, bit);
+    }
+    // Pull a lone remaining entry up so the trie stays as shallow as possible
+    if (newChild instanceof BitmapNode childBitmap
+        && childBitmap.slots.length == 1
+        && childBitmap.slots[0] instanceof Leaf only) {
+      return bitmapNode.slots.length == 1
+          ? BitmapNode.of(only, shift)
+          : bitmapNode.replace(index, only);
+    }
+    return bitmapNode.replace(index, newChild);
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    // spread the higher bits down, as java.util.HashMap does
+    return h ^ (h >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private sealed interface Node permits BitmapNode, CollisionNode {
+  }
+
+  private static final class Leaf {
+    final Object key;
+    final Object value;
+    final int hash;
+
+    Leaf(Object key, Object value, int hash) {
+      this.key = key;
+      this.value = value;
+      this.hash = hash;
+    }
+
+    boolean matches(Object otherKey, int otherHash) {
+      return hash == otherHash && key.equals(otherKey);
+    }
+  }
+
+  private static final class BitmapNode implements Node {
+    final int bitmap;
+    // One slot per set bit, in bit order; each is a Leaf or a Node
+    final Object[] slots;
+
+    BitmapNode(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    static BitmapNode of(Leaf leaf, int shift) {
+      return of(leaf, leaf.hash, shift);
+    }
+
+    static BitmapNode of(Object slot, int hash, int shift) {
+      return new BitmapNode(bit(hash, shift), new Object[] {slot});
+    }
+
+    int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    BitmapNode insert(int index, int bit, Object slot) {
+      Object[] copy = new Object[slots.length + 1];
+      System.arraycopy(slots, 0, copy, 0, index);
+      copy[index] = slot;
+      System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+      return new BitmapNode(bitmap | bit, copy);
+    }
+
+    BitmapNode replace(int index, Object slot) {
+      Object[] copy = slots.clone();
+      copy[index] = slot;
+      return new BitmapNode(bitmap, copy);
+    }
+
+    BitmapNode removeAt(int index, int bit) {
+      Object[] copy = new Object[slots.length - 1];
+      System.arraycopy(slots, 0, copy, 0, index);
+      System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+      return new BitmapNode(bitmap & ~bit, copy);
+    }
+  }
+
+  private static final class CollisionNode implements Node {
+    final int hash;
+    final Leaf[] leaves;
+
+    CollisionNode(int hash, Leaf[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    Leaf find(Object key) {
+      int i = indexOf(key);
+      return i < 0 ? null : leaves[i];
+    }
+
+    Node put(Leaf leaf, boolean[] added) {
+      int i = indexOf(leaf.key);
+      if (i < 0) {
+        added[0] = true;
+        Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+        copy[leaves.length] = leaf;
+        return new CollisionNode(hash, copy);
+      }
+      if (Objects.equals(leaves[i].value, leaf.value)) {
+        return this;
+      }
+      Leaf[] copy = leaves.clone();
+      copy[i] = leaf;
+      return new CollisionNode(hash, copy);
+    }
+
+    Node remove(Object key, int keyHash, int shift) {
+      int i = keyHash == hash ? indexOf(key) : -1;
+      if (i < 0) {
+        return this;
+      }
+      if (leaves.length == 2) {
+        // the parent collapses this single-entry node into a plain slot
+        return BitmapNode.of(leaves[1 - i], shift);
+      }
+      Leaf[] copy = new Leaf[leaves.length - 1];
+      System.arraycopy(leaves, 0, copy, 0, i);
+      System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+      return new CollisionNode(hash, copy);
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].key.equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  // Depth-first walk over the trie using an explicit, fixed-size stack
+  private static final class LeafIterator implements Iterator<Leaf> {
+    private final Object[][] stack = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth;
+    private Leaf next;
+
+    LeafIterator(Node root) {
+      if (root != null) {
+        push(root);
+      }
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Leaf next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf current = next;
+      advance();
+      return current;
+    }
+
+    private void push(Node node) {
+      stack[depth] = node instanceof BitmapNode bitmapNode ? bitmapNode.slots : ((CollisionNode) node).leaves;
+      positions[depth] = 0;
+      depth++;
+    }
+
+    private void advance() {
+      next = null;
+      while (depth > 0) {
+        Object[] slots = stack[depth - 1];
+        int position = positions[depth - 1];
+        if (position >= slots.length) {
+          stack[--depth] = null;
+          continue;
+        }
+        positions[depth - 1]++;
+        Object slot = slots[position];
+        if (slot instanceof Leaf leaf) {
+          next = leaf;
+          return;
+        }
+        push((Node) slot);
+      }
+    }
+  }
+}
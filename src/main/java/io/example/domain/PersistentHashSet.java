@@ -0,0 +1,62 @@
+package io.example.domain;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+// An immutable set backed by a PersistentHashMap. It is a regular
+// java.util.Set for readers (and for JSON serialization), while writers use
+// `plus`/`minus` to derive new sets that share structure with this one.
+// The mutating Set methods throw UnsupportedOperationException.
+public final class PersistentHashSet<E> extends AbstractSet<E> {
+
+  private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+  private final PersistentHashMap<E, Boolean> map;
+
+  private PersistentHashSet(PersistentHashMap<E, Boolean> map) {
+    this.map = map;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <E> PersistentHashSet<E> empty() {
+    return (PersistentHashSet<E>) EMPTY;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <E> PersistentHashSet<E> copyOf(Collection<? extends E> elements) {
+    if (elements instanceof PersistentHashSet<?> persistent) {
+      return (PersistentHashSet<E>) persistent;
+    }
+    PersistentHashSet<E> set = empty();
+    for (E element : elements) {
+      set = set.plus(element);
+    }
+    return set;
+  }
+
+  public PersistentHashSet<E> plus(E element) {
+    var updated = map.plus(element, Boolean.TRUE);
+    return updated == map ? this : new PersistentHashSet<>(updated);
+  }
+
+  public PersistentHashSet<E> minus(Object element) {
+    var updated = map.minus(element);
+    return updated == map ? this : new PersistentHashSet<>(updated);
+  }
+
+  @Override
+  public boolean contains(Object element) {
+    return map.containsKey(element);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return map.keyIterator();
+  }
+}
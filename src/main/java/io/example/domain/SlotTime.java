@@ -0,0 +1,42 @@
+package io.example.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Slot IDs are opaque to the backend, but the suggested naming convention
+// encodes the slot's start as `yyyy-MM-dd-HH` (e.g. `2025-08-08-09` for
+// August 8th, 2025 at 9am). This derives a sortable start time from IDs that
+// follow the convention, optionally followed by a non-numeric suffix, and
+// interprets it as UTC. Other IDs have no start time.
+public final class SlotTime {
+
+  // Every slot of the convention spans one hour
+  public static final Duration LENGTH = Duration.ofHours(1);
+
+  private static final Pattern CONVENTION = Pattern.compile("^(\\d{4}-\\d{2}-\\d{2}-\\d{2})(?:$|\\D.*)");
+  private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd-HH");
+
+  private SlotTime() {
+  }
+
+  public static Optional<Instant> startOf(String slotId) {
+    if (slotId == null) {
+      return Optional.empty();
+    }
+    var matcher = CONVENTION.matcher(slotId);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(LocalDateTime.parse(matcher.group(1), FORMAT).toInstant(ZoneOffset.UTC));
+    } catch (DateTimeParseException ex) {
+      return Optional.empty();
+    }
+  }
+}
@@ -1,34 +1,146 @@
 package io.example.domain;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.example.domain.Participant.ParticipantType;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 // The Timeslot is a core domain object. It maintains two internal sets:
 // the list of bookings and the list of participants available for booking.
 // As bookings and availability are added and removed, the contents of those
 // sets are shifted from one to the other.
-public record Timeslot(Set<Booking> bookings, Set<Participant> available) {
+//
+// Bookings are additionally indexed by booking ID (and participants by the
+// booking they belong to) so that looking up, booking and canceling do not
+// depend on how many bookings the slot holds. The indexes are internal only:
+// the serialized form is still just `bookings` and `available`, plus
+// `sharded` for slots whose availability lives in SlotShardEntity instances.
+//
+// A Timeslot is immutable. All sets and indexes are persistent hash tries, so
+// applying an event costs O(log32 n) and shares every untouched branch with
+// the previous state, and a Timeslot can be handed to readers as-is.
+@JsonAutoDetect(
+    fieldVisibility = JsonAutoDetect.Visibility.NONE,
+    getterVisibility = JsonAutoDetect.Visibility.NONE,
+    isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public final class Timeslot {
+
+  private static final Timeslot EMPTY =
+      new Timeslot(
+          PersistentHashSet.empty(),
+          PersistentHashSet.empty(),
+          PersistentHashMap.empty(),
+          PersistentHashMap.empty(),
+          false);
+
+  private final PersistentHashSet<Booking> bookings;
+  private final PersistentHashSet<Participant> available;
+  // bookingId -> the (usually 3) booking entries sharing that ID
+  private final PersistentHashMap<String, List<Booking>> bookingsById;
+  // participant -> the booking ID it is currently booked under
+  private final PersistentHashMap<Participant, String> bookingIdByParticipant;
+  private final boolean sharded;
+
+  public Timeslot(Set<Booking> bookings, Set<Participant> available) {
+    this(bookings, available, false);
+  }
+
+  @JsonCreator
+  public Timeslot(
+      @JsonProperty("bookings") Set<Booking> bookings,
+      @JsonProperty("available") Set<Participant> available,
+      @JsonProperty("sharded") boolean sharded) {
+    Timeslot indexed = EMPTY;
+    if (bookings != null) {
+      for (Booking booking : bookings) {
+        indexed = indexed.withBooking(booking);
+      }
+    }
+    this.bookings = indexed.bookings;
+    this.available = available == null ? PersistentHashSet.empty() : PersistentHashSet.copyOf(available);
+    this.bookingsById = indexed.bookingsById;
+    this.bookingIdByParticipant = indexed.bookingIdByParticipant;
+    this.sharded = sharded;
+  }
+
+  private Timeslot(
+      PersistentHashSet<Booking> bookings,
+      PersistentHashSet<Participant> available,
+      PersistentHashMap<String, List<Booking>> bookingsById,
+      PersistentHashMap<Participant, String> bookingIdByParticipant,
+      boolean sharded) {
+    this.bookings = bookings;
+    this.available = available;
+    this.bookingsById = bookingsById;
+    this.bookingIdByParticipant = bookingIdByParticipant;
+    this.sharded = sharded;
+  }
+
+  public static Timeslot empty() {
+    return EMPTY;
+  }
+
+  @JsonProperty("bookings")
+  public Set<Booking> bookings() {
+    return bookings;
+  }
+
+  @JsonProperty("available")
+  public Set<Participant> available() {
+    return available;
+  }
+
+  // Left out of the JSON of regular slots
+  @JsonProperty("sharded")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public boolean isSharded() {
+    return sharded;
+  }
+
+  // Applies a single booking event, as done when the BookingSlotEntity
+  // replays its journal
+  public Timeslot apply(BookingEvent event) {
+    return switch (event) {
+      case BookingEvent.BookingCreated created -> book(created);
+      case BookingEvent.BookingCanceled canceled -> cancelBooking(canceled.bookingId());
+      case BookingEvent.ParticipantBooked booked -> book(booked);
+      case BookingEvent.ParticipantCanceled cancelled -> cancelBooking(cancelled.bookingId());
+      case BookingEvent.ParticipantMarkedAvailable participant -> reserve(participant);
+      case BookingEvent.ParticipantUnmarkedAvailable participant -> unreserve(participant);
+      case BookingEvent.ShardingEnabled enabled ->
+        sharded ? this : new Timeslot(bookings, available, bookingsById, bookingIdByParticipant, true);
+    };
+  }
 
   public Timeslot reserve(BookingEvent.ParticipantMarkedAvailable reserved) {
-    available.add(new Participant(reserved.participantId(), reserved.participantType()));
+    var updated = available.plus(new Participant(reserved.participantId(), reserved.participantType()));
 
-    return new Timeslot(bookings, available);
+    return withAvailable(updated);
   }
 
   public Timeslot unreserve(BookingEvent.ParticipantUnmarkedAvailable unreserved) {
-    available.remove(new Participant(unreserved.participantId(), unreserved.participantType()));
+    var updated = available.minus(new Participant(unreserved.participantId(), unreserved.participantType()));
 
-    return new Timeslot(bookings, available);
+    return withAvailable(updated);
   }
 
   public Timeslot book(BookingEvent.ParticipantBooked booked) {
     Participant p = new Participant(booked.participantId(), booked.participantType());
-    available.remove(p);
-    bookings.add(new Booking(p, booked.bookingId()));
 
-    return new Timeslot(bookings, available);
+    return withAvailable(available.minus(p)).withBooking(new Booking(p, booked.bookingId()));
+  }
+
+  public Timeslot book(BookingEvent.BookingCreated created) {
+    var updated = this;
+    for (var booked : created.participantEvents()) {
+      updated = updated.book(booked);
+    }
+    return updated;
   }
 
   // Checks to see if the given participant is among those marked as available
@@ -36,6 +148,11 @@ public record Timeslot(Set<Booking> bookings, Set<Participant> available) {
     return available.contains(new Participant(participantId, participantType));
   }
 
+  // Checks to see if the given participant holds a booking in this slot
+  public boolean isBooked(String participantId, ParticipantType participantType) {
+    return bookingIdByParticipant.containsKey(new Participant(participantId, participantType));
+  }
+
   public boolean isBookable(String studentId, String aircraftId, String instructorId) {
     return isWaiting(studentId, ParticipantType.STUDENT)
         && isWaiting(aircraftId, ParticipantType.AIRCRAFT)
@@ -46,14 +163,66 @@ public record Timeslot(Set<Booking> bookings, Set<Participant> available) {
   // be 3 participants for a single booking, so this will usually return no items
   // or 3 items.
   public List<Booking> findBooking(String bookingId) {
-    return bookings.stream().filter(b -> b.bookingId().equals(bookingId)).toList();
+    return bookingsById.getOrDefault(bookingId, List.of());
   }
 
   // Removes all three participants of a booking from the booking list. It does
   // not automatically mark them as available for that slot.
   public Timeslot cancelBooking(String bookingId) {
-    Set<Booking> books = bookings.stream().filter(b -> !b.bookingId().equals(bookingId)).collect(Collectors.toSet());
-    return new Timeslot(books, available);
+    List<Booking> canceled = bookingsById.get(bookingId);
+    if (canceled == null) {
+      return this;
+    }
+    var remainingBookings = bookings;
+    var remainingParticipants = bookingIdByParticipant;
+    for (Booking booking : canceled) {
+      remainingBookings = remainingBookings.minus(booking);
+      if (bookingId.equals(remainingParticipants.get(booking.participant()))) {
+        remainingParticipants = remainingParticipants.minus(booking.participant());
+      }
+    }
+    return new Timeslot(remainingBookings, available, bookingsById.minus(bookingId), remainingParticipants, sharded);
+  }
+
+  private Timeslot withAvailable(PersistentHashSet<Participant> updated) {
+    return updated == available
+        ? this
+        : new Timeslot(bookings, updated, bookingsById, bookingIdByParticipant, sharded);
+  }
+
+  private Timeslot withBooking(Booking booking) {
+    var updatedBookings = bookings.plus(booking);
+    if (updatedBookings == bookings) {
+      return this;
+    }
+    List<Booking> sameId = bookingsById.getOrDefault(booking.bookingId(), List.of());
+    List<Booking> updatedSameId = new ArrayList<>(sameId.size() + 1);
+    updatedSameId.addAll(sameId);
+    updatedSameId.add(booking);
+    return new Timeslot(
+        updatedBookings,
+        available,
+        bookingsById.plus(booking.bookingId(), List.copyOf(updatedSameId)),
+        bookingIdByParticipant.plus(booking.participant(), booking.bookingId()),
+        sharded);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Timeslot other
+        && bookings.equals(other.bookings)
+        && available.equals(other.available)
+        && sharded == other.sharded;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(bookings, available, sharded);
+  }
+
+  @Override
+  public String toString() {
+    return "Timeslot[bookings=" + bookings + ", available=" + available + ", sharded=" + sharded + "]";
   }
 
   public record Booking(Participant participant, String bookingId) {
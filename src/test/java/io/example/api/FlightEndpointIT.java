@@ -1,8 +1,14 @@
 package io.example.api;
 
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Assertions;
@@ -12,10 +18,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.testkit.TestKitSupport;
 import io.example.api.FlightEndpoint.*;
+import io.example.application.BookableSlotsView.BookableSlot;
+import io.example.application.BookableSlotsView.BookableSlots;
+import io.example.application.BookingSlotEntity;
+import io.example.application.MultiSlotBookingWorkflow;
+import io.example.application.ParticipantCalendarEntity;
 import io.example.application.ParticipantSlotsView.SlotList;
+import io.example.application.ParticipantSlotsView.SlotPage;
+import io.example.application.ParticipantSlotsView.SlotRow;
+import io.example.application.SlotAvailabilityView.AvailableParticipant;
+import io.example.application.SlotAvailabilityView.AvailableParticipants;
 import io.example.domain.Participant;
+import io.example.domain.ParticipantCalendar;
+import io.example.domain.SlotTime;
 import io.example.domain.Timeslot;
 import io.example.domain.Participant.ParticipantAvailabilityStatus;
 import io.example.domain.Participant.ParticipantType;
@@ -138,9 +156,9 @@ public class FlightEndpointIT extends TestKitSupport {
 
           // And slot rows should match the participant's type, id and status
           actualSlots.forEach(slotRow -> {
-            Assertions.assertEquals(ParticipantType.INSTRUCTOR.name(), slotRow.participantType());
+            Assertions.assertEquals(ParticipantType.INSTRUCTOR, slotRow.participantType());
             Assertions.assertEquals(instructorId, slotRow.participantId());
-            Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE.getValue(), slotRow.status());
+            Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE, slotRow.status());
           });
         });
   }
@@ -182,4 +200,509 @@ public class FlightEndpointIT extends TestKitSupport {
     var actualTimeslot = getResponse.body();
     assertThat(actualTimeslot.available()).isEmpty();
   }
+
+  @Test
+  public void markAvailableBatchMarksParticipantsAcrossSlotsOverHttp() {
+    // Given a batch marking a student available in two slots
+    // And items with an invalid participant type, a blank slot ID and no
+    // participant ID
+    var otherSlotId = UUID.randomUUID().toString();
+    var request = new BatchAvailabilityRequest(List.of(
+        new BatchAvailabilityItem(slotId, studentId, ParticipantType.STUDENT.name()),
+        new BatchAvailabilityItem(otherSlotId, studentId, ParticipantType.STUDENT.name()),
+        new BatchAvailabilityItem(otherSlotId, instructorId, "pilot"),
+        new BatchAvailabilityItem(" ", instructorId, ParticipantType.INSTRUCTOR.name()),
+        new BatchAvailabilityItem(otherSlotId, null, ParticipantType.INSTRUCTOR.name())));
+
+    // When the batch is submitted via an HTTP request
+    var postResponse = httpClient.POST("/flight/batch/availability")
+        .withRequestBody(request)
+        .responseBodyAs(BatchAvailabilityResponse.class)
+        .invoke();
+
+    // Then the request is successful with one result per item, in order
+    Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    var results = postResponse.body().results();
+    assertThat(results).extracting(BatchItemResult::success).containsExactly(true, true, false, false, false);
+    Assertions.assertEquals("invalid participant type", results.get(2).error());
+    Assertions.assertEquals("slotId is required", results.get(3).error());
+    Assertions.assertEquals("participantId is required", results.get(4).error());
+
+    // And both slots list the student as available
+    List.of(slotId, otherSlotId).forEach(id -> {
+      var getResponse = httpClient.GET("/flight/availability/" + id).responseBodyAs(Timeslot.class).invoke();
+      assertThat(getResponse.body().available()).containsExactly(new Participant(studentId, ParticipantType.STUDENT));
+    });
+  }
+
+  @Test
+  public void slotPagesReturnAllSlotsForParticipantAcrossPagesOverHttp() {
+    // Given a participant available across three slots
+    var participantId = UUID.randomUUID().toString();
+    List.of(slotId, slotId + "-2", slotId + "-3").forEach(id -> {
+      var postResponse = httpClient.POST("/flight/availability/" + id)
+          .withRequestBody(new AvailabilityRequest(participantId, ParticipantType.AIRCRAFT.name())).invoke();
+      Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    });
+
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          // When requesting the available slots two at a time
+          var firstPage = httpClient
+              .GET("/flight/slots/" + participantId + "/" + ParticipantAvailabilityStatus.AVAILABLE.getValue()
+                  + "/page?pageSize=2")
+              .responseBodyAs(SlotPage.class).invoke().body();
+
+          // Then the first page holds two slots and points to the next one
+          assertThat(firstPage.slots()).hasSize(2);
+          Assertions.assertTrue(firstPage.hasMore());
+
+          // And the next page holds the remaining slot
+          var secondPage = httpClient
+              .GET("/flight/slots/" + participantId + "/" + ParticipantAvailabilityStatus.AVAILABLE.getValue()
+                  + "/page?pageSize=2&pageToken=" + firstPage.nextPageToken())
+              .responseBodyAs(SlotPage.class).invoke().body();
+          assertThat(secondPage.slots()).hasSize(1);
+          Assertions.assertFalse(secondPage.hasMore());
+        });
+  }
+
+  @Test
+  public void slotsBetweenAndUpcomingSelectSlotsByStartTimeOverHttp() {
+    // Given a student available in three timed slots and one without a time
+    var student = UUID.randomUUID().toString();
+    var morning = "2031-05-06-09-" + slotId;
+    var noon = "2031-05-06-12-" + slotId;
+    var later = "2031-05-08-09-" + slotId;
+    List.of(later, morning, noon, slotId).forEach(id -> httpClient.POST("/flight/availability/" + id)
+        .withRequestBody(new AvailabilityRequest(student, ParticipantType.STUDENT.name())).invoke());
+    var available = ParticipantAvailabilityStatus.AVAILABLE.getValue();
+
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          // When listing the slots of one day
+          var betweenResponse = httpClient
+              .GET("/flight/slots/" + student + "/" + available
+                  + "/between?from=2031-05-06T00:00:00Z&to=2031-05-07T00:00:00Z")
+              .responseBodyAs(SlotList.class).invoke();
+
+          // Then only that day's slots are returned, in start time order
+          Assertions.assertEquals(StatusCodes.OK, betweenResponse.status());
+          assertThat(betweenResponse.body().slots()).extracting(SlotRow::slotId).containsExactly(morning, noon);
+
+          // And the next two slots from mid-morning are the following ones
+          var upcomingResponse = httpClient
+              .GET("/flight/slots/" + student + "/" + available + "/upcoming?from=2031-05-06T10:00:00Z&limit=2")
+              .responseBodyAs(SlotList.class).invoke();
+          Assertions.assertEquals(StatusCodes.OK, upcomingResponse.status());
+          assertThat(upcomingResponse.body().slots()).extracting(SlotRow::slotId).containsExactly(noon, later);
+        });
+  }
+
+  @Test
+  public void slotAndParticipantChangeStreamsEmitUpdatesOverHttp() throws Exception {
+    // Given a student available in the slot, as seen by the view
+    var student = UUID.randomUUID().toString();
+    httpClient.POST("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(student, ParticipantType.STUDENT.name())).invoke();
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(httpClient
+            .GET("/flight/slots/" + student + "/" + ParticipantAvailabilityStatus.AVAILABLE.getValue())
+            .responseBodyAs(SlotList.class).invoke().body().slots()).hasSize(1));
+
+    // And clients following the slot and the student
+    var slotChanges = openEventStream("/flight/changes/slots?slotIds=" + slotId);
+    var participantChanges = openEventStream("/flight/changes/participants/" + student);
+    try {
+      // When the student withdraws
+      httpClient.DELETE("/flight/availability/" + slotId)
+          .withRequestBody(new AvailabilityRequest(student, ParticipantType.STUDENT.name())).invoke();
+
+      // Then both streams push the updated row
+      var unavailable = "\"status\":\"" + ParticipantAvailabilityStatus.UNAVAILABLE.getValue() + "\"";
+      for (var changes : List.of(slotChanges, participantChanges)) {
+        var update = CompletableFuture.supplyAsync(() -> changes.body()
+            .filter(line -> line.startsWith("data:") && line.contains(student) && line.contains(unavailable))
+            .findFirst());
+        assertThat(update.get(10, TimeUnit.SECONDS)).isPresent();
+      }
+    } finally {
+      slotChanges.body().close();
+      participantChanges.body().close();
+    }
+  }
+
+  @Test
+  public void overlappingBookingIsRejectedAndCalendarListsBookingOverHttp() throws Exception {
+    // Given a booked slot and a second slot at the same hour, with the same
+    // student and other instructors and aircraft available in both
+    var student = UUID.randomUUID().toString();
+    var booked = "2032-01-01-09-a-" + slotId;
+    var overlapping = "2032-01-01-09-b-" + slotId;
+    for (var id : List.of(booked, overlapping)) {
+      for (var participant : List.of(
+          new Participant(student, ParticipantType.STUDENT),
+          new Participant(id + "-instructor", ParticipantType.INSTRUCTOR),
+          new Participant(id + "-aircraft", ParticipantType.AIRCRAFT))) {
+        var postResponse = httpClient.POST("/flight/availability/" + id)
+            .withRequestBody(new AvailabilityRequest(participant.id(), participant.participantType().name()))
+            .invoke();
+        Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+      }
+    }
+    var bookResponse = httpClient.POST("/flight/bookings/" + booked)
+        .withRequestBody(new BookingRequest(student, booked + "-aircraft", booked + "-instructor", bookingId))
+        .invoke();
+    Assertions.assertEquals(StatusCodes.CREATED, bookResponse.status());
+
+    // When the student's calendar has picked up the booking
+    // Then the calendar lists it for the requested range
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          var calendarResponse = httpClient
+              .GET("/flight/calendar/" + student + "?from=2032-01-01T00:00:00Z&to=2032-01-02T00:00:00Z")
+              .responseBodyAs(ParticipantCalendarEntity.Entries.class).invoke();
+          Assertions.assertEquals(StatusCodes.OK, calendarResponse.status());
+          assertThat(calendarResponse.body().entries()).containsExactly(
+              new ParticipantCalendar.Entry(booked, bookingId, SlotTime.startOf(booked).orElseThrow()));
+        });
+
+    // And booking the student into the overlapping slot is rejected
+    var conflictResponse = postRaw("/flight/bookings/" + overlapping, new BookingRequest(
+        student, overlapping + "-aircraft", overlapping + "-instructor", UUID.randomUUID().toString()));
+    Assertions.assertEquals(400, conflictResponse.statusCode());
+    assertThat(conflictResponse.body()).contains(ParticipantCalendarEntity.SCHEDULE_CONFLICT);
+
+    // And the overlapping slot stays unbooked
+    var timeslot = httpClient.GET("/flight/availability/" + overlapping)
+        .responseBodyAs(Timeslot.class).invoke().body();
+    assertThat(timeslot.bookings()).isEmpty();
+    assertThat(timeslot.available()).hasSize(3);
+  }
+
+  @Test
+  public void shardedBookingReleasesClaimsWhenRecordingFailsOverHttp() throws Exception {
+    // Given a sharded slot booked for the student, instructor and aircraft,
+    // and another student available
+    var otherStudentId = UUID.randomUUID().toString();
+    for (var participant : List.of(
+        new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(otherStudentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()),
+        new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name()))) {
+      var postResponse = httpClient.POST("/flight/sharded/availability/" + slotId)
+          .withRequestBody(participant).invoke();
+      Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    }
+    var bookResponse = httpClient.POST("/flight/sharded/bookings/" + slotId).withRequestBody(booking).invoke();
+    Assertions.assertEquals(StatusCodes.CREATED, bookResponse.status());
+
+    // When the booking ID is reused for the other student, whose claim
+    // succeeds but whose booking cannot be recorded
+    var conflictResponse = postRaw("/flight/sharded/bookings/" + slotId,
+        new BookingRequest(otherStudentId, aircraftId, instructorId, bookingId));
+
+    // Then the booking is rejected
+    Assertions.assertEquals(400, conflictResponse.statusCode());
+    assertThat(conflictResponse.body()).contains(BookingSlotEntity.BOOKING_ID_CONFLICT);
+
+    // And the other student is released, while the original booking keeps
+    // the instructor and aircraft it shares with the rejected one
+    var timeslot = httpClient.GET("/flight/sharded/availability/" + slotId)
+        .responseBodyAs(Timeslot.class).invoke().body();
+    assertThat(timeslot.available()).containsExactly(new Participant(otherStudentId, ParticipantType.STUDENT));
+    assertThat(timeslot.bookings())
+        .containsExactlyInAnyOrder(expectedStudentBooking, expectedInstructorBooking, expectedAircraftBooking);
+  }
+
+  @Test
+  public void shardedSlotRejectsRegularAvailabilityAndBookingsOverHttp() throws Exception {
+    // Given a slot marked available through the sharded routes
+    for (var participant : List.of(
+        new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()),
+        new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name()))) {
+      var postResponse = httpClient.POST("/flight/sharded/availability/" + slotId)
+          .withRequestBody(participant).invoke();
+      Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    }
+
+    // When marking availability and booking through the regular routes
+    var markResponse = postRaw("/flight/availability/" + slotId,
+        new AvailabilityRequest(UUID.randomUUID().toString(), ParticipantType.STUDENT.name()));
+    var bookResponse = postRaw("/flight/bookings/" + slotId, booking);
+
+    // Then both are rejected
+    for (var response : List.of(markResponse, bookResponse)) {
+      Assertions.assertEquals(400, response.statusCode());
+      assertThat(response.body()).contains(BookingSlotEntity.SLOT_SHARDED);
+    }
+
+    // And the participants can still be booked through the sharded route
+    var shardedResponse = httpClient.POST("/flight/sharded/bookings/" + slotId).withRequestBody(booking).invoke();
+    Assertions.assertEquals(StatusCodes.CREATED, shardedResponse.status());
+    var timeslot = httpClient.GET("/flight/sharded/availability/" + slotId)
+        .responseBodyAs(Timeslot.class).invoke().body();
+    Assertions.assertTrue(timeslot.isSharded());
+    assertThat(timeslot.bookings())
+        .containsExactlyInAnyOrder(expectedStudentBooking, expectedInstructorBooking, expectedAircraftBooking);
+  }
+
+  @Test
+  public void shardedBookingReleasesClaimsWhenAClaimFailsOverHttp() throws Exception {
+    // Given a sharded slot with an available student and instructor, but no
+    // aircraft
+    for (var participant : List.of(
+        new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()))) {
+      var postResponse = httpClient.POST("/flight/sharded/availability/" + slotId)
+          .withRequestBody(participant).invoke();
+      Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    }
+
+    // When booking them with the aircraft
+    var bookResponse = postRaw("/flight/sharded/bookings/" + slotId, booking);
+
+    // Then the booking is rejected
+    Assertions.assertEquals(400, bookResponse.statusCode());
+    assertThat(bookResponse.body()).contains(BookingSlotEntity.PARTICIPANTS_UNAVAILABLE);
+
+    // And the student and instructor claims are released
+    var timeslot = httpClient.GET("/flight/sharded/availability/" + slotId)
+        .responseBodyAs(Timeslot.class).invoke().body();
+    assertThat(timeslot.bookings()).isEmpty();
+    assertThat(timeslot.available()).containsExactlyInAnyOrder(
+        new Participant(studentId, ParticipantType.STUDENT), new Participant(instructorId, ParticipantType.INSTRUCTOR));
+  }
+
+  // Posts a JSON request body and returns the raw response, whatever its
+  // status, for asserting on rejected requests
+  private java.net.http.HttpResponse<String> postRaw(String path, Object body) throws Exception {
+    var request = HttpRequest.newBuilder(URI.create("http://" + testKit.getHost() + ":" + testKit.getPort() + path))
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(JsonSupport.getObjectMapper().writeValueAsString(body)))
+        .build();
+    return java.net.http.HttpClient.newHttpClient().send(request, BodyHandlers.ofString());
+  }
+
+  // Opens a server-sent event stream and returns as soon as the response
+  // headers arrive; the body yields the event lines as they are pushed
+  private java.net.http.HttpResponse<Stream<String>> openEventStream(String path) throws Exception {
+    var request = HttpRequest.newBuilder(URI.create("http://" + testKit.getHost() + ":" + testKit.getPort() + path))
+        .header("Accept", "text/event-stream")
+        .GET()
+        .build();
+    var response = java.net.http.HttpClient.newHttpClient().send(request, BodyHandlers.ofLines());
+    Assertions.assertEquals(200, response.statusCode());
+    return response;
+  }
+
+  @Test
+  public void availableParticipantsListsOnlyAvailableParticipantsOfTypeOverHttp() {
+    // Given two available instructors in the slot, one of which withdraws
+    var otherInstructorId = UUID.randomUUID().toString();
+    List.of(instructorId, otherInstructorId).forEach(id -> {
+      var postResponse = httpClient.POST("/flight/availability/" + slotId)
+          .withRequestBody(new AvailabilityRequest(id, ParticipantType.INSTRUCTOR.name())).invoke();
+      Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    });
+    httpClient.POST("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(studentId, ParticipantType.STUDENT.name())).invoke();
+    httpClient.DELETE("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(otherInstructorId, ParticipantType.INSTRUCTOR.name())).invoke();
+
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          // When listing the available instructors of the slot
+          var getResponse = httpClient
+              .GET("/flight/availability/" + slotId + "/" + ParticipantType.INSTRUCTOR.name().toLowerCase())
+              .responseBodyAs(AvailableParticipants.class).invoke();
+
+          // Then only the instructor still available is returned
+          Assertions.assertEquals(StatusCodes.OK, getResponse.status());
+          assertThat(getResponse.body().participants())
+              .extracting(AvailableParticipant::participantId)
+              .containsExactly(instructorId);
+        });
+  }
+
+  @Test
+  public void participantMarkedAvailableAfterCancellationIsListedAgainOverHttp() {
+    // Given a booking that was canceled
+    for (var participant : List.of(
+        new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()),
+        new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name()))) {
+      httpClient.POST("/flight/availability/" + slotId).withRequestBody(participant).invoke();
+    }
+    var postResponse = httpClient.POST("/flight/bookings/" + slotId).withRequestBody(booking).invoke();
+    Assertions.assertEquals(StatusCodes.CREATED, postResponse.status());
+    var deleteResponse = httpClient.DELETE("/flight/bookings/" + slotId + "/" + bookingId).invoke();
+    Assertions.assertEquals(StatusCodes.OK, deleteResponse.status());
+
+    // When the student is marked available in the slot again
+    var markResponse = httpClient.POST("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(studentId, ParticipantType.STUDENT.name())).invoke();
+    Assertions.assertEquals(StatusCodes.OK, markResponse.status());
+
+    // Then the view lists the student as available, and not the instructor
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          var students = httpClient
+              .GET("/flight/availability/" + slotId + "/" + ParticipantType.STUDENT.name().toLowerCase())
+              .responseBodyAs(AvailableParticipants.class).invoke().body();
+          assertThat(students.participants())
+              .extracting(AvailableParticipant::participantId)
+              .containsExactly(studentId);
+          var instructors = httpClient
+              .GET("/flight/availability/" + slotId + "/" + ParticipantType.INSTRUCTOR.name().toLowerCase())
+              .responseBodyAs(AvailableParticipants.class).invoke().body();
+          assertThat(instructors.participants()).isEmpty();
+        });
+  }
+
+  @Test
+  public void bookableSlotsReturnsSlotsWithCompleteTripleOverHttp() {
+    // Given a student available in two slots of a day, with an instructor and
+    // an aircraft available in the first one only
+    var student = UUID.randomUUID().toString();
+    var bookableSlot = "2031-03-04-09-" + slotId;
+    var incompleteSlot = "2031-03-04-11-" + slotId;
+    List.of(bookableSlot, incompleteSlot).forEach(id -> httpClient.POST("/flight/availability/" + id)
+        .withRequestBody(new AvailabilityRequest(student, ParticipantType.STUDENT.name())).invoke());
+    httpClient.POST("/flight/availability/" + bookableSlot)
+        .withRequestBody(new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name())).invoke();
+    httpClient.POST("/flight/availability/" + bookableSlot)
+        .withRequestBody(new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name())).invoke();
+    httpClient.POST("/flight/availability/" + incompleteSlot)
+        .withRequestBody(new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name())).invoke();
+
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          // When searching the day for slots bookable with the instructor
+          var getResponse = httpClient
+              .GET("/flight/bookable/" + student + "?instructorId=" + instructorId
+                  + "&from=2031-03-04T00:00:00Z&to=2031-03-05T00:00:00Z")
+              .responseBodyAs(BookableSlots.class).invoke();
+
+          // Then only the slot with a complete triple is returned
+          Assertions.assertEquals(StatusCodes.OK, getResponse.status());
+          assertThat(getResponse.body().slots())
+              .extracting(BookableSlot::slotId)
+              .containsExactly(bookableSlot);
+        });
+  }
+
+  @Test
+  public void allOrNothingRecurringBookingRollsBackOnFailureOverHttp() {
+    // Given a student, instructor and aircraft available in one slot only
+    var otherSlotId = UUID.randomUUID().toString();
+    List.of(new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()),
+        new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name()))
+        .forEach(availability -> httpClient.POST("/flight/availability/" + slotId)
+            .withRequestBody(availability).invoke());
+
+    // When booking them into both slots all-or-nothing
+    var request = new RecurringBookingRequest(
+        studentId, aircraftId, instructorId, bookingId, List.of(slotId, otherSlotId), true);
+    var postResponse = httpClient.POST("/flight/recurring-bookings")
+        .withRequestBody(request)
+        .responseBodyAs(RecurringBookingResponse.class)
+        .invoke();
+
+    // Then no slot ends up booked
+    Assertions.assertEquals(StatusCodes.OK, postResponse.status());
+    assertThat(postResponse.body().results()).extracting(RecurringSlotResult::success).containsExactly(false, false);
+    Assertions.assertEquals("rolled back", postResponse.body().results().get(0).error());
+    var getResponse = httpClient.GET("/flight/availability/" + slotId).responseBodyAs(Timeslot.class).invoke();
+    assertThat(getResponse.body().bookings()).isEmpty();
+    // And the participants are available in the rolled back slot again
+    assertThat(getResponse.body().available()).containsExactlyInAnyOrder(
+        expectedStudentBooking.participant(), expectedInstructorBooking.participant(),
+        expectedAircraftBooking.participant());
+  }
+
+  @Test
+  public void recurringBookingRequiresBookingIdOverHttp() throws Exception {
+    // When booking recurring slots without a booking ID
+    var request = new RecurringBookingRequest(studentId, aircraftId, instructorId, " ", List.of(slotId), false);
+    var postResponse = postRaw("/flight/recurring-bookings", request);
+
+    // Then the request is rejected
+    Assertions.assertEquals(400, postResponse.statusCode());
+  }
+
+  @Test
+  public void multiSlotBookingCompensatesWhenOneSlotRejectsOverHttp() {
+    // Given the participants available in the first of two slots only
+    var otherSlotId = UUID.randomUUID().toString();
+    List.of(new AvailabilityRequest(studentId, ParticipantType.STUDENT.name()),
+        new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name()),
+        new AvailabilityRequest(aircraftId, ParticipantType.AIRCRAFT.name()))
+        .forEach(availability -> httpClient.POST("/flight/availability/" + slotId)
+            .withRequestBody(availability).invoke());
+    var availableBefore = httpClient.GET("/flight/availability/" + slotId).responseBodyAs(Timeslot.class).invoke()
+        .body().available();
+
+    // When booking both slots atomically
+    var postResponse = httpClient.POST("/flight/multi-slot-bookings/" + bookingId)
+        .withRequestBody(new MultiSlotBookingRequest(studentId, aircraftId, instructorId, List.of(slotId, otherSlotId)))
+        .invoke();
+    Assertions.assertEquals(StatusCodes.ACCEPTED, postResponse.status());
+
+    Awaitility.await()
+        .ignoreExceptions()
+        .atMost(10, TimeUnit.SECONDS)
+        .untilAsserted(() -> {
+          // Then the booking ends up failed
+          var state = httpClient.GET("/flight/multi-slot-bookings/" + bookingId)
+              .responseBodyAs(MultiSlotBookingWorkflow.State.class).invoke().body();
+          Assertions.assertEquals(MultiSlotBookingWorkflow.Status.FAILED, state.status());
+
+          // And the slot that accepted it was compensated, with its
+          // participants available as before
+          var timeslot = httpClient.GET("/flight/availability/" + slotId).responseBodyAs(Timeslot.class).invoke();
+          assertThat(timeslot.body().bookings()).isEmpty();
+          Assertions.assertEquals(availableBefore, timeslot.body().available());
+        });
+  }
+
+  @Test
+  public void getSlotAnswersNotModifiedForCurrentEtagOverHttp() {
+    // Given a slot with an available student
+    httpClient.POST("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(studentId, ParticipantType.STUDENT.name())).invoke();
+    var getResponse = httpClient.GET("/flight/availability/" + slotId).responseBodyAs(Timeslot.class).invoke();
+    var etag = getResponse.httpResponse().getHeader("ETag").orElseThrow().value();
+
+    // When requesting it again with its ETag
+    var conditionalResponse = httpClient.GET("/flight/availability/" + slotId)
+        .addHeader("If-None-Match", etag).invoke();
+
+    // Then it is not sent again
+    Assertions.assertEquals(StatusCodes.NOT_MODIFIED, conditionalResponse.status());
+
+    // And once the slot changes, the old ETag no longer matches
+    httpClient.POST("/flight/availability/" + slotId)
+        .withRequestBody(new AvailabilityRequest(instructorId, ParticipantType.INSTRUCTOR.name())).invoke();
+    var changedResponse = httpClient.GET("/flight/availability/" + slotId)
+        .addHeader("If-None-Match", etag).responseBodyAs(Timeslot.class).invoke();
+    Assertions.assertEquals(StatusCodes.OK, changedResponse.status());
+    assertThat(changedResponse.body().available()).hasSize(2);
+  }
 }
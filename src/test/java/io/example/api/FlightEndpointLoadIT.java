@@ -0,0 +1,283 @@
+package io.example.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import akka.javasdk.http.StrictResponse;
+import akka.javasdk.testkit.TestKitSupport;
+import io.example.api.FlightEndpoint.*;
+import io.example.domain.Participant.ParticipantAvailabilityStatus;
+import io.example.domain.Participant.ParticipantType;
+
+// A repeatable local load test driving FlightEndpoint over HTTP with a mix of
+// availability churn, booking storms on one hot slot, cancellations and
+// participant slot queries. It reports throughput, p50/p99 latency and error
+// rate per operation.
+//
+// Bookings on the hot slot take participants believed available there, and
+// cancellations hand theirs over to the mark-available traffic, which marks
+// them in the hot slot again, so bookings keep succeeding throughout the run.
+//
+// Disabled by default; run it with:
+//
+// mvn verify -Dit.test=FlightEndpointLoadIT -Dloadtest=true
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class FlightEndpointLoadIT extends TestKitSupport {
+
+  private static final Logger log = LoggerFactory.getLogger(FlightEndpointLoadIT.class);
+
+  private static final int SLOTS = Integer.getInteger("loadtest.slots", 20);
+  private static final int PARTICIPANTS_PER_TYPE = Integer.getInteger("loadtest.participants", 10);
+  private static final int OPERATIONS = Integer.getInteger("loadtest.operations", 2_000);
+  private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+  // Highest acceptable share of failed requests, bookings excluded
+  private static final double MAX_ERROR_RATE = 0.01;
+  // Share of the mark-available traffic that re-marks participants of
+  // canceled hot slot bookings, keeping the booking storm supplied
+  private static final int HOT_MARK_PERCENT = 50;
+  // More successful bookings than the hot slot's initial availability allows,
+  // and cancellations of real bookings, show that the storm keeps reaching
+  // the BookingSlotEntity instead of being rejected from the cache
+  private static final int MIN_BOOKINGS = 2 * PARTICIPANTS_PER_TYPE;
+  private static final int MIN_CANCELLATIONS = PARTICIPANTS_PER_TYPE;
+
+  private enum Operation {
+    MARK_AVAILABLE, UNMARK_AVAILABLE, BOOK_HOT_SLOT, CANCEL_BOOKING, QUERY_SLOTS
+  }
+
+  private final String runId = UUID.randomUUID().toString();
+  private final String hotSlotId = runId + "-hot";
+  private final ConcurrentLinkedQueue<BookingRequest> confirmedBookings = new ConcurrentLinkedQueue<>();
+  // participants believed available in the hot slot, by type
+  private final Map<ParticipantType, ConcurrentLinkedQueue<String>> hotAvailable =
+      new EnumMap<>(ParticipantType.class);
+  // participants of canceled hot slot bookings, waiting to be marked again
+  private final ConcurrentLinkedQueue<AvailabilityRequest> released = new ConcurrentLinkedQueue<>();
+  private final AtomicLong canceledBookings = new AtomicLong();
+
+  @Test
+  public void mixedTrafficStaysWithinErrorBudget() throws Exception {
+    // Given every participant available in the hot slot
+    for (ParticipantType type : ParticipantType.values()) {
+      hotAvailable.put(type, new ConcurrentLinkedQueue<>());
+      for (int i = 0; i < PARTICIPANTS_PER_TYPE; i++) {
+        httpClient.POST("/flight/availability/" + hotSlotId)
+            .withRequestBody(new AvailabilityRequest(participantId(type, i), type.name()))
+            .invoke();
+        hotAvailable.get(type).add(participantId(type, i));
+      }
+    }
+
+    // When running the traffic mix with bounded concurrency
+    Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new OperationStats());
+    }
+    var inFlight = new Semaphore(CONCURRENCY);
+    var pending = new ArrayList<CompletableFuture<?>>(OPERATIONS);
+    long start = System.nanoTime();
+    for (int i = 0; i < OPERATIONS; i++) {
+      inFlight.acquire();
+      var operation = pickOperation();
+      long sent = System.nanoTime();
+      CompletableFuture<Boolean> request;
+      try {
+        request = send(operation).toCompletableFuture();
+      } catch (RuntimeException ex) {
+        // a request that fails before it is sent never completes, so the
+        // permit has to be given back here
+        stats.get(operation).record(System.nanoTime() - sent, false);
+        inFlight.release();
+        continue;
+      }
+      pending.add(request.whenComplete((ok, ex) -> {
+        stats.get(operation).record(System.nanoTime() - sent, ex == null && ok);
+        inFlight.release();
+      }));
+    }
+    CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(ex -> null)
+        .get(5, TimeUnit.MINUTES);
+    long elapsedNanos = System.nanoTime() - start;
+
+    // Then the report is logged and non-booking error rates stay in budget
+    log.info("Load test: {} operations, concurrency {}, {} slots, {} participants per type, {} ms",
+        OPERATIONS, CONCURRENCY, SLOTS, PARTICIPANTS_PER_TYPE, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    stats.forEach((operation, operationStats) -> log.info("{}", operationStats.report(operation, elapsedNanos)));
+    log.info("Hot slot: {} bookings, {} cancellations of confirmed bookings",
+        stats.get(Operation.BOOK_HOT_SLOT).successes(), canceledBookings.get());
+
+    stats.forEach((operation, operationStats) -> {
+      // bookings on a contended slot are expected to be rejected regularly
+      if (operation != Operation.BOOK_HOT_SLOT && operation != Operation.CANCEL_BOOKING) {
+        Assertions.assertTrue(operationStats.errorRate() <= MAX_ERROR_RATE,
+            operation + " error rate " + operationStats.errorRate());
+      }
+    });
+    // And the hot slot keeps being booked and canceled
+    Assertions.assertTrue(stats.get(Operation.BOOK_HOT_SLOT).successes() >= MIN_BOOKINGS,
+        "successful hot slot bookings " + stats.get(Operation.BOOK_HOT_SLOT).successes());
+    Assertions.assertTrue(canceledBookings.get() >= MIN_CANCELLATIONS,
+        "canceled hot slot bookings " + canceledBookings.get());
+  }
+
+  private Operation pickOperation() {
+    int roll = ThreadLocalRandom.current().nextInt(100);
+    if (roll < 25) {
+      return Operation.MARK_AVAILABLE;
+    } else if (roll < 40) {
+      return Operation.UNMARK_AVAILABLE;
+    } else if (roll < 60) {
+      return Operation.BOOK_HOT_SLOT;
+    } else if (roll < 70) {
+      return Operation.CANCEL_BOOKING;
+    }
+    return Operation.QUERY_SLOTS;
+  }
+
+  // Sends one request; completes with whether the response was successful
+  private CompletionStage<Boolean> send(Operation operation) {
+    var random = ThreadLocalRandom.current();
+    var type = ParticipantType.values()[random.nextInt(ParticipantType.values().length)];
+    var participantId = participantId(type, random.nextInt(PARTICIPANTS_PER_TYPE));
+    var slotId = runId + "-" + random.nextInt(SLOTS);
+
+    return switch (operation) {
+      case MARK_AVAILABLE -> {
+        var hotMark = random.nextInt(100) < HOT_MARK_PERCENT ? released.poll() : null;
+        if (hotMark == null) {
+          yield succeeded(httpClient.POST("/flight/availability/" + slotId)
+              .withRequestBody(new AvailabilityRequest(participantId, type.name())).invokeAsync());
+        }
+        yield succeeded(httpClient.POST("/flight/availability/" + hotSlotId).withRequestBody(hotMark).invokeAsync())
+            .thenApply(ok -> {
+              if (ok) {
+                hotAvailable.get(ParticipantType.valueOf(hotMark.participantType())).add(hotMark.participantId());
+              } else {
+                released.add(hotMark);
+              }
+              return ok;
+            });
+      }
+      case UNMARK_AVAILABLE -> succeeded(httpClient.DELETE("/flight/availability/" + slotId)
+          .withRequestBody(new AvailabilityRequest(participantId, type.name())).invokeAsync());
+      case BOOK_HOT_SLOT -> {
+        // books participants believed available in the hot slot; a type that
+        // has none left is filled with a participant that never is, so the
+        // booking is rejected without booking anyone outside the pool
+        var student = hotAvailable.get(ParticipantType.STUDENT).poll();
+        var aircraft = hotAvailable.get(ParticipantType.AIRCRAFT).poll();
+        var instructor = hotAvailable.get(ParticipantType.INSTRUCTOR).poll();
+        var booking = new BookingRequest(
+            student != null ? student : participantId(ParticipantType.STUDENT, PARTICIPANTS_PER_TYPE),
+            aircraft != null ? aircraft : participantId(ParticipantType.AIRCRAFT, PARTICIPANTS_PER_TYPE),
+            instructor != null ? instructor : participantId(ParticipantType.INSTRUCTOR, PARTICIPANTS_PER_TYPE),
+            UUID.randomUUID().toString());
+        yield succeeded(httpClient.POST("/flight/bookings/" + hotSlotId).withRequestBody(booking).invokeAsync())
+            .thenApply(ok -> {
+              if (ok) {
+                confirmedBookings.add(booking);
+              } else {
+                // participants taken from the pool are still available
+                returnToPool(ParticipantType.STUDENT, student);
+                returnToPool(ParticipantType.AIRCRAFT, aircraft);
+                returnToPool(ParticipantType.INSTRUCTOR, instructor);
+              }
+              return ok;
+            });
+      }
+      case CANCEL_BOOKING -> {
+        var booking = confirmedBookings.poll();
+        if (booking == null) {
+          yield succeeded(httpClient.DELETE("/flight/bookings/" + hotSlotId + "/" + UUID.randomUUID()).invokeAsync());
+        }
+        yield succeeded(httpClient.DELETE("/flight/bookings/" + hotSlotId + "/" + booking.bookingId()).invokeAsync())
+            .thenApply(ok -> {
+              if (ok) {
+                // canceled participants are not available until marked again
+                canceledBookings.incrementAndGet();
+                released.add(new AvailabilityRequest(booking.studentId(), ParticipantType.STUDENT.name()));
+                released.add(new AvailabilityRequest(booking.aircraftId(), ParticipantType.AIRCRAFT.name()));
+                released.add(new AvailabilityRequest(booking.instructorId(), ParticipantType.INSTRUCTOR.name()));
+              } else {
+                confirmedBookings.add(booking);
+              }
+              return ok;
+            });
+      }
+      case QUERY_SLOTS -> succeeded(httpClient
+          .GET("/flight/slots/" + participantId + "/" + ParticipantAvailabilityStatus.AVAILABLE.getValue())
+          .invokeAsync());
+    };
+  }
+
+  private void returnToPool(ParticipantType type, String participantId) {
+    if (participantId != null) {
+      hotAvailable.get(type).add(participantId);
+    }
+  }
+
+  private static CompletionStage<Boolean> succeeded(CompletionStage<? extends StrictResponse<?>> response) {
+    return response.handle((r, ex) -> ex == null && r.status().isSuccess());
+  }
+
+  private String participantId(ParticipantType type, int index) {
+    return runId + "-" + type.name().toLowerCase() + "-" + index;
+  }
+
+  private static final class OperationStats {
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong errors = new AtomicLong();
+
+    void record(long latencyNanos, boolean success) {
+      latencies.add(latencyNanos);
+      if (!success) {
+        errors.incrementAndGet();
+      }
+    }
+
+    long successes() {
+      return latencies.size() - errors.get();
+    }
+
+    double errorRate() {
+      return latencies.isEmpty() ? 0 : (double) errors.get() / latencies.size();
+    }
+
+    String report(Operation operation, long elapsedNanos) {
+      List<Long> sorted;
+      synchronized (latencies) {
+        sorted = new ArrayList<>(latencies);
+      }
+      Collections.sort(sorted);
+      double throughput = sorted.size() / (elapsedNanos / 1_000_000_000.0);
+      return String.format("%-16s count=%5d throughput=%8.1f/s p50=%7.2fms p99=%7.2fms errors=%5.2f%%",
+          operation, sorted.size(), throughput, percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+          errorRate() * 100);
+    }
+
+    private static double percentileMillis(List<Long> sorted, double quantile) {
+      if (sorted.isEmpty()) {
+        return 0;
+      }
+      int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+      return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+  }
+}
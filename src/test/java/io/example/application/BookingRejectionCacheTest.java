@@ -0,0 +1,88 @@
+package io.example.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.example.domain.Participant;
+import io.example.domain.Participant.ParticipantType;
+
+public class BookingRejectionCacheTest {
+
+  private final String slotId = "2025-08-08-09";
+  private final Participant instructor = new Participant("mr-delgado", ParticipantType.INSTRUCTOR);
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private BookingRejectionCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new BookingRejectionCache(2, Duration.ofSeconds(5), now::get);
+  }
+
+  @Test
+  void testUnavailableParticipantIsRejectedUntilExpiry() {
+    // Given an instructor booked just now
+    cache.markUnavailable(slotId, instructor, Instant.ofEpochMilli(now.get()));
+
+    // Then it is known unavailable within the TTL
+    Assertions.assertTrue(cache.isKnownUnavailable(slotId, instructor));
+    // And no longer once the TTL has passed
+    now.addAndGet(5_000);
+    Assertions.assertFalse(cache.isKnownUnavailable(slotId, instructor));
+  }
+
+  @Test
+  void testInvalidateRemovesEntry() {
+    // Given an instructor that withdrew availability
+    cache.markUnavailable(slotId, instructor, Instant.ofEpochMilli(now.get()));
+
+    // When the instructor is marked available again
+    cache.invalidate(slotId, instructor);
+
+    // Then bookings naming them are no longer rejected
+    Assertions.assertFalse(cache.isKnownUnavailable(slotId, instructor));
+  }
+
+  @Test
+  void testRetryOfTheSameBookingIsNotRejected() {
+    // Given an instructor booked just now under a booking ID
+    cache.markBooked(slotId, instructor, "booking-1", Instant.ofEpochMilli(now.get()));
+
+    // Then a retry of that booking passes the check
+    Assertions.assertFalse(cache.isKnownUnavailable(slotId, instructor, "booking-1"));
+    // And any other booking is rejected
+    Assertions.assertTrue(cache.isKnownUnavailable(slotId, instructor, "booking-2"));
+  }
+
+  @Test
+  void testEventsOlderThanTtlAreNotCached() {
+    // When replaying an event created long ago
+    cache.markUnavailable(slotId, instructor, Instant.ofEpochMilli(now.get() - 60_000));
+
+    // Then nothing is cached
+    Assertions.assertFalse(cache.isKnownUnavailable(slotId, instructor));
+    Assertions.assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testLeastRecentlyUsedEntryIsEvictedBeyondCapacity() {
+    var student = new Participant("liam", ParticipantType.STUDENT);
+    var aircraft = new Participant("piper-pa-28", ParticipantType.AIRCRAFT);
+
+    // Given a full cache
+    cache.markUnavailable(slotId, instructor, Instant.ofEpochMilli(now.get()));
+    cache.markUnavailable(slotId, student, Instant.ofEpochMilli(now.get()));
+
+    // When adding a third entry
+    cache.markUnavailable(slotId, aircraft, Instant.ofEpochMilli(now.get()));
+
+    // Then the eldest one is evicted
+    Assertions.assertEquals(2, cache.size());
+    Assertions.assertFalse(cache.isKnownUnavailable(slotId, instructor));
+    Assertions.assertTrue(cache.isKnownUnavailable(slotId, aircraft));
+  }
+}
@@ -10,8 +10,10 @@ import org.junit.jupiter.api.Test;
 
 import akka.Done;
 import akka.javasdk.testkit.EventSourcedTestKit;
+import io.example.domain.BookingEvent;
 import io.example.domain.Participant;
 import io.example.domain.Participant.ParticipantType;
+import io.example.domain.Timeslot;
 import io.example.application.BookingSlotEntity.Command;
 
 public class BookingSlotEntityTest {
@@ -149,4 +151,221 @@ public class BookingSlotEntityTest {
     // And all participants are not automatically marked as available
     assertThat(state.available()).isEmpty();
   }
+
+  @Test
+  void testRetriedBookingRepliesDoneWithoutEvents() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given a booked slot
+    testKit.method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(studentParticipant));
+    testKit.method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(instructorParticipant));
+    testKit.method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(aircraftParticipant));
+    var booking = new Command.BookReservation(
+        studentParticipant.id(), aircraftParticipant.id(), instructorParticipant.id(), UUID.randomUUID().toString());
+    testKit.method(BookingSlotEntity::bookSlot).invoke(booking);
+
+    // When the same booking is retried
+    var retryResult = testKit.method(BookingSlotEntity::bookSlot).invoke(booking);
+
+    // Then it succeeds without persisting anything
+    Assertions.assertEquals(Done.getInstance(), retryResult.getReply());
+    assertThat(retryResult.getAllEvents()).isEmpty();
+
+    // And reusing the booking ID for other participants fails
+    var conflictResult = testKit.method(BookingSlotEntity::bookSlot).invoke(new Command.BookReservation(
+        "someone-else", aircraftParticipant.id(), instructorParticipant.id(), booking.bookingId()));
+    Assertions.assertEquals(BookingSlotEntity.BOOKING_ID_CONFLICT, conflictResult.getError());
+  }
+
+  @Test
+  void testRecordClaimedBookingRejectsReusedBookingId() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given a recorded claimed booking in a sharded slot
+    testKit.method(BookingSlotEntity::enableSharding).invoke();
+    var booking = new Command.BookReservation(
+        studentParticipant.id(), aircraftParticipant.id(), instructorParticipant.id(), UUID.randomUUID().toString());
+    testKit.method(BookingSlotEntity::recordClaimedBooking).invoke(booking);
+
+    // When it is recorded again
+    var retryResult = testKit.method(BookingSlotEntity::recordClaimedBooking).invoke(booking);
+
+    // Then it succeeds without persisting anything
+    Assertions.assertEquals(Done.getInstance(), retryResult.getReply());
+    assertThat(retryResult.getAllEvents()).isEmpty();
+
+    // And recording the booking ID for other participants fails
+    var conflictResult = testKit.method(BookingSlotEntity::recordClaimedBooking).invoke(new Command.BookReservation(
+        "someone-else", aircraftParticipant.id(), instructorParticipant.id(), booking.bookingId()));
+    Assertions.assertEquals(BookingSlotEntity.BOOKING_ID_CONFLICT, conflictResult.getError());
+    assertThat(conflictResult.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  void testSlotUsesEitherShardedOrRegularAvailability() {
+    var regular = EventSourcedTestKit.of(BookingSlotEntity::new);
+    var sharded = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given a slot with regular availability and a sharded slot
+    regular.method(BookingSlotEntity::markSlotAvailable).invoke(new Command.MarkSlotAvailable(studentParticipant));
+    var enableResult = sharded.method(BookingSlotEntity::enableSharding).invoke();
+    Assertions.assertEquals(Done.getInstance(), enableResult.getReply());
+    Assertions.assertTrue(sharded.getState().isSharded());
+    // And enabling sharding again persists nothing
+    assertThat(sharded.method(BookingSlotEntity::enableSharding).invoke().getAllEvents()).isEmpty();
+
+    // When using each slot the other way
+    // Then the commands are rejected
+    var booking = new Command.BookReservation(
+        studentParticipant.id(), aircraftParticipant.id(), instructorParticipant.id(), UUID.randomUUID().toString());
+    Assertions.assertEquals(BookingSlotEntity.SLOT_NOT_SHARDED,
+        regular.method(BookingSlotEntity::enableSharding).invoke().getError());
+    Assertions.assertEquals(BookingSlotEntity.SLOT_NOT_SHARDED,
+        regular.method(BookingSlotEntity::recordClaimedBooking).invoke(booking).getError());
+    Assertions.assertEquals(BookingSlotEntity.SLOT_SHARDED,
+        sharded.method(BookingSlotEntity::markSlotAvailable).invoke(new Command.MarkSlotAvailable(studentParticipant))
+            .getError());
+    Assertions.assertEquals(BookingSlotEntity.SLOT_SHARDED,
+        sharded.method(BookingSlotEntity::bookSlot).invoke(booking).getError());
+  }
+
+  @Test
+  void testRecordClaimedBookingRefusesParticipantsBookedElsewhere() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given a sharded slot holding a booking
+    testKit.method(BookingSlotEntity::enableSharding).invoke();
+    testKit.method(BookingSlotEntity::recordClaimedBooking).invoke(new Command.BookReservation(
+        studentParticipant.id(), aircraftParticipant.id(), instructorParticipant.id(), UUID.randomUUID().toString()));
+
+    // When recording another booking holding one of its participants
+    var result = testKit.method(BookingSlotEntity::recordClaimedBooking).invoke(new Command.BookReservation(
+        "someone-else", aircraftParticipant.id(), "another-instructor", UUID.randomUUID().toString()));
+
+    // Then it is refused
+    Assertions.assertEquals(BookingSlotEntity.PARTICIPANTS_UNAVAILABLE, result.getError());
+    assertThat(result.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  void testCancelUnknownBookingRepliesDoneWithoutEvents() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // When cancelling a booking the slot does not hold
+    var cancelResult = testKit.method(BookingSlotEntity::cancelBooking).invoke(UUID.randomUUID().toString());
+
+    // Then it succeeds without persisting anything
+    Assertions.assertEquals(Done.getInstance(), cancelResult.getReply());
+    assertThat(cancelResult.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  void testRepeatedAvailabilityChangesPersistNothing() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given an available student
+    testKit.method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(studentParticipant));
+
+    // When marking them available again
+    var markAgainResult = testKit.method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(studentParticipant));
+    // And unmarking an instructor that never was available
+    var unmarkResult = testKit.method(BookingSlotEntity::unmarkSlotAvailable)
+        .invoke(new Command.UnmarkSlotAvailable(instructorParticipant));
+
+    // Then both succeed without persisting anything
+    Set.of(markAgainResult, unmarkResult).forEach(result -> {
+      Assertions.assertEquals(Done.getInstance(), result.getReply());
+      assertThat(result.getAllEvents()).isEmpty();
+    });
+    assertThat(testKit.getState().available()).containsExactly(studentParticipant);
+  }
+
+  @Test
+  void testReleaseBookingRestoresAvailability() {
+    var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+
+    // Given a booked slot
+    Set.of(studentParticipant, instructorParticipant, aircraftParticipant).forEach(participant -> testKit
+        .method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(participant)));
+    var bookingId = UUID.randomUUID().toString();
+    testKit.method(BookingSlotEntity::bookSlot).invoke(new Command.BookReservation(
+        studentId, aircraftId, instructorId, bookingId));
+
+    // When releasing the booking
+    var releaseResult = testKit.method(BookingSlotEntity::releaseBooking).invoke(bookingId);
+
+    // Then the booking is gone and its participants are available again
+    Assertions.assertEquals(Done.getInstance(), releaseResult.getReply());
+    assertThat(testKit.getState().bookings()).isEmpty();
+    assertThat(testKit.getState().available())
+        .containsExactlyInAnyOrder(studentParticipant, instructorParticipant, aircraftParticipant);
+
+    // And releasing it again persists nothing
+    var secondRelease = testKit.method(BookingSlotEntity::releaseBooking).invoke(bookingId);
+    Assertions.assertEquals(Done.getInstance(), secondRelease.getReply());
+    assertThat(secondRelease.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  void testBookingAndCancelingPersistOneEventEach() {
+    var slotId = "2025-08-08-09";
+    var testKit = EventSourcedTestKit.of(slotId, BookingSlotEntity::new);
+
+    // Given an available student, instructor and aircraft
+    Set.of(studentParticipant, instructorParticipant, aircraftParticipant).forEach(participant -> testKit
+        .method(BookingSlotEntity::markSlotAvailable)
+        .invoke(new Command.MarkSlotAvailable(participant)));
+
+    // When booking and then canceling them
+    var bookingId = UUID.randomUUID().toString();
+    var bookingResult = testKit.method(BookingSlotEntity::bookSlot).invoke(new Command.BookReservation(
+        studentId, aircraftId, instructorId, bookingId));
+    var cancelResult = testKit.method(BookingSlotEntity::cancelBooking).invoke(bookingId);
+
+    // Then each persists a single event carrying the whole triple
+    assertThat(bookingResult.getAllEvents()).containsExactly(
+        new BookingEvent.BookingCreated(slotId, bookingId, studentId, instructorId, aircraftId));
+    assertThat(cancelResult.getAllEvents()).containsExactly(
+        new BookingEvent.BookingCanceled(slotId, bookingId, studentId, instructorId, aircraftId));
+    assertThat(testKit.getState().bookings()).isEmpty();
+  }
+
+  @Test
+  void testPerParticipantEventsReplayLikeAggregateEvents() {
+    // Given a booking journaled both as the per-participant events slots used
+    // to persist and as a single aggregate event
+    var created = new BookingEvent.BookingCreated("slot", "b1", studentId, instructorId, aircraftId);
+    var canceled = new BookingEvent.BookingCanceled("slot", "b1", studentId, instructorId, aircraftId);
+    var marked = Set.of(studentParticipant, instructorParticipant, aircraftParticipant).stream()
+        .map(p -> (BookingEvent) new BookingEvent.ParticipantMarkedAvailable("slot", p.id(), p.participantType()))
+        .toList();
+
+    // When replaying each journal
+    var legacy = Timeslot.empty();
+    var aggregate = Timeslot.empty();
+    for (var event : marked) {
+      legacy = legacy.apply(event);
+      aggregate = aggregate.apply(event);
+    }
+    for (var event : created.participantEvents()) {
+      legacy = legacy.apply(event);
+    }
+    aggregate = aggregate.apply(created);
+
+    // Then both yield the same slot, before and after canceling
+    Assertions.assertEquals(legacy, aggregate);
+    assertThat(aggregate.findBooking("b1")).hasSize(3);
+    for (var event : canceled.participantEvents()) {
+      legacy = legacy.apply(event);
+    }
+    aggregate = aggregate.apply(canceled);
+    Assertions.assertEquals(legacy, aggregate);
+    assertThat(aggregate.bookings()).isEmpty();
+  }
 }
@@ -2,14 +2,17 @@ package io.example.application;
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import akka.Done;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.testkit.EventSourcedTestKit;
 import io.example.application.ParticipantSlotEntity.Commands;
+import io.example.domain.BookingEvent;
 import io.example.domain.Participant;
 import io.example.domain.Participant.ParticipantAvailabilityStatus;
 import io.example.domain.Participant.ParticipantType;
@@ -40,7 +43,7 @@ public class ParticipantSlotEntityTest {
     Assertions.assertEquals(slotId, state.slotId());
     Assertions.assertEquals(studentParticipant.id(), state.participantId());
     Assertions.assertEquals(studentParticipant.participantType(), state.participantType());
-    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE.getValue(), state.status());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE, state.status());
   }
 
   @Test
@@ -63,7 +66,7 @@ public class ParticipantSlotEntityTest {
     Assertions.assertEquals(slotId, state.slotId());
     Assertions.assertEquals(studentParticipant.id(), state.participantId());
     Assertions.assertEquals(studentParticipant.participantType(), state.participantType());
-    Assertions.assertEquals(ParticipantAvailabilityStatus.UNAVAILABLE.getValue(), state.status());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.UNAVAILABLE, state.status());
   }
 
   @Test
@@ -93,7 +96,7 @@ public class ParticipantSlotEntityTest {
     Assertions.assertEquals(slotId, state.slotId());
     Assertions.assertEquals(studentParticipant.id(), state.participantId());
     Assertions.assertEquals(studentParticipant.participantType(), state.participantType());
-    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE.getValue(), state.status());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE, state.status());
   }
 
   @Test
@@ -189,7 +192,7 @@ public class ParticipantSlotEntityTest {
     Assertions.assertEquals(slotId, state.slotId());
     Assertions.assertEquals(studentParticipant.id(), state.participantId());
     Assertions.assertEquals(studentParticipant.participantType(), state.participantType());
-    Assertions.assertEquals(ParticipantAvailabilityStatus.BOOKED.getValue(), state.status());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.BOOKED, state.status());
   }
 
   @Test
@@ -253,8 +256,104 @@ public class ParticipantSlotEntityTest {
     // Then the command should succeed
     Assertions.assertEquals(Done.getInstance(), cancelResult.getReply());
 
-    // And the state should be updated accordingly
+    // And the participant is no longer booked nor available, like in the
+    // slot's Timeslot
     var state = testKit.getState();
-    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE.getValue(), state.status());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.UNAVAILABLE, state.status());
+
+    // And marking it available again persists the change for the views
+    var markAgainResult = testKit.method(ParticipantSlotEntity::markAvailable)
+        .invoke(new Commands.MarkAvailable(slotId, studentParticipant.id(), studentParticipant.participantType()));
+    Assertions.assertEquals(1, markAgainResult.getAllEvents().size());
+    Assertions.assertEquals(ParticipantAvailabilityStatus.AVAILABLE, testKit.getState().status());
+  }
+
+  @Test
+  void testRedeliveredAggregateEventsReplyDoneForParticipantsThatAppliedThem() {
+    // Given the three participant slots of a booking, all available
+    var created = new BookingEvent.BookingCreated(slotId, UUID.randomUUID().toString(), studentId, "mr-delgado",
+        "piper-pa-28");
+    var testKits = created.participantEvents().stream().collect(Collectors.toMap(
+        BookingEvent.ParticipantBooked::participantId,
+        booked -> {
+          var testKit = EventSourcedTestKit.of(ParticipantSlotEntity::new);
+          testKit.method(ParticipantSlotEntity::markAvailable)
+              .invoke(new Commands.MarkAvailable(slotId, booked.participantId(), booked.participantType()));
+          return testKit;
+        }));
+
+    // And only the student has applied the BookingCreated event
+    var studentBooked = created.participantEvents().get(0);
+    testKits.get(studentId).method(ParticipantSlotEntity::book).invoke(new Commands.Book(
+        slotId, studentBooked.participantId(), studentBooked.participantType(), studentBooked.bookingId()));
+
+    // When the event is redelivered to all three
+    // Then every participant replies Done and only the others are booked now
+    created.participantEvents().forEach(booked -> {
+      var bookResult = testKits.get(booked.participantId()).method(ParticipantSlotEntity::book).invoke(
+          new Commands.Book(slotId, booked.participantId(), booked.participantType(), booked.bookingId()));
+      Assertions.assertEquals(Done.getInstance(), bookResult.getReply());
+      Assertions.assertEquals(booked.participantId().equals(studentId) ? 0 : 1, bookResult.getAllEvents().size());
+      Assertions.assertEquals(ParticipantAvailabilityStatus.BOOKED,
+          testKits.get(booked.participantId()).getState().status());
+    });
+
+    // And when the BookingCanceled event is applied by the student only and
+    // then redelivered
+    var canceled = new BookingEvent.BookingCanceled(slotId, created.bookingId(), created.studentId(),
+        created.instructorId(), created.aircraftId());
+    var studentCanceled = canceled.participantEvents().get(0);
+    testKits.get(studentId).method(ParticipantSlotEntity::cancel).invoke(new Commands.Cancel(
+        slotId, studentCanceled.participantId(), studentCanceled.participantType(), studentCanceled.bookingId()));
+
+    // Then every participant replies Done and is no longer booked
+    canceled.participantEvents().forEach(cancel -> {
+      var cancelResult = testKits.get(cancel.participantId()).method(ParticipantSlotEntity::cancel).invoke(
+          new Commands.Cancel(slotId, cancel.participantId(), cancel.participantType(), cancel.bookingId()));
+      Assertions.assertEquals(Done.getInstance(), cancelResult.getReply());
+      Assertions.assertEquals(cancel.participantId().equals(studentId) ? 0 : 1, cancelResult.getAllEvents().size());
+      Assertions.assertEquals(ParticipantAvailabilityStatus.UNAVAILABLE,
+          testKits.get(cancel.participantId()).getState().status());
+    });
+  }
+
+  @Test
+  void testCancelingAnotherBookingStillFailsForAvailableParticipant() {
+    var testKit = EventSourcedTestKit.of(ParticipantSlotEntity::new);
+    // Given a participant whose booking was canceled and who was marked
+    // available again
+    testKit.method(ParticipantSlotEntity::markAvailable)
+        .invoke(new Commands.MarkAvailable(slotId, studentParticipant.id(), studentParticipant.participantType()));
+    var bookingId = UUID.randomUUID().toString();
+    testKit.method(ParticipantSlotEntity::book)
+        .invoke(new Commands.Book(slotId, studentParticipant.id(), studentParticipant.participantType(), bookingId));
+    testKit.method(ParticipantSlotEntity::cancel)
+        .invoke(new Commands.Cancel(slotId, studentParticipant.id(), studentParticipant.participantType(), bookingId));
+    testKit.method(ParticipantSlotEntity::markAvailable)
+        .invoke(new Commands.MarkAvailable(slotId, studentParticipant.id(), studentParticipant.participantType()));
+
+    // When canceling another booking of the available participant
+    var cancelResult = testKit.method(ParticipantSlotEntity::cancel)
+        .invoke(new Commands.Cancel(slotId, studentParticipant.id(), studentParticipant.participantType(),
+            UUID.randomUUID().toString()));
+
+    // Then it still fails
+    Assertions.assertEquals("Failed to cancel available but not booked participant slot", cancelResult.getError());
+  }
+
+  @Test
+  void testStateWithStringStatusStillDeserializes() throws Exception {
+    // Given a snapshot persisted while the status was a lowercase string
+    var json = """
+        {"slotId":"slot-id","participantId":"liam","participantType":"STUDENT","status":"booked"}
+        """;
+
+    // When reading it back
+    var state = JsonSupport.getObjectMapper().readValue(json, ParticipantSlotEntity.State.class);
+
+    // Then the status maps onto the enum and serializes to the same value
+    Assertions.assertEquals(ParticipantAvailabilityStatus.BOOKED, state.status());
+    Assertions.assertNull(state.bookingId());
+    Assertions.assertTrue(JsonSupport.getObjectMapper().writeValueAsString(state).contains("\"status\":\"booked\""));
   }
 }
@@ -0,0 +1,81 @@
+package io.example.application;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PipelineMetricsTest {
+
+  @Test
+  void testHistogramReportsBucketPercentiles() {
+    var histogram = new PipelineMetrics.Histogram();
+
+    // Given 99 fast and 1 slow observation
+    for (int i = 0; i < 99; i++) {
+      histogram.record(3);
+    }
+    histogram.record(750);
+
+    // When taking a snapshot
+    var snapshot = histogram.snapshot();
+
+    // Then percentiles are reported as bucket upper bounds
+    Assertions.assertEquals(100, snapshot.count());
+    Assertions.assertEquals(5, snapshot.p50());
+    Assertions.assertEquals(5, snapshot.p99());
+    Assertions.assertEquals(750, snapshot.max());
+    Assertions.assertEquals(99, snapshot.buckets().get("le_5"));
+    Assertions.assertEquals(1, snapshot.buckets().get("le_1000"));
+  }
+
+  @Test
+  void testRateMeterAveragesCompleteSecondsOfWindow() {
+    var rate = new PipelineMetrics.RateMeter(10);
+    long now = 1_000_000L;
+
+    // Given 20 events in each of the two previous seconds
+    for (int i = 0; i < 20; i++) {
+      rate.mark(now - 2_000);
+      rate.mark(now - 1_000);
+    }
+    // And events in the current, incomplete second
+    rate.mark(now);
+
+    // Then only complete seconds count towards the rate
+    Assertions.assertEquals(4.0, rate.perSecond(now));
+  }
+
+  @Test
+  void testStageRecordsFailuresAndLag() {
+    var stage = PipelineMetrics.stage(PipelineMetrics.Stage.SLOT_TO_PARTICIPANT_CONSUMER);
+    var before = stage.snapshot();
+
+    // When recording a failed event created a second ago
+    stage.record(1_000_000, Optional.of(Instant.now().minusSeconds(1)), false);
+
+    // Then the failure and its lag are reflected in the snapshot
+    var after = stage.snapshot();
+    Assertions.assertEquals(before.failed() + 1, after.failed());
+    assertThat(after.lastStageLagMillis()).isGreaterThanOrEqualTo(1_000);
+  }
+
+  @Test
+  void testLagOnlyStageRecordsNoHandlingTime() {
+    var stage = PipelineMetrics.stage(PipelineMetrics.Stage.PARTICIPANT_SLOTS_VIEW);
+    var before = stage.snapshot();
+
+    // When recording an event without a handling time
+    stage.recordLag(Optional.of(Instant.now().minusSeconds(1)), true);
+
+    // Then it counts as processed and its lag is recorded
+    var after = stage.snapshot();
+    Assertions.assertEquals(before.processed() + 1, after.processed());
+    Assertions.assertEquals(before.stageLagMillis().count() + 1, after.stageLagMillis().count());
+    Assertions.assertEquals("participant-slot-event", after.lagMeasuredFrom());
+    // And the handling histogram is unchanged
+    Assertions.assertEquals(before.handlingMillis().count(), after.handlingMillis().count());
+  }
+}
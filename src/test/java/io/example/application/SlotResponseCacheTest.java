@@ -0,0 +1,94 @@
+package io.example.application;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SlotResponseCacheTest {
+
+  private final String slotId = "2025-08-08-09";
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private SlotResponseCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new SlotResponseCache(2, Duration.ofSeconds(2), now::get);
+  }
+
+  @Test
+  void testCachedSlotIsServedUntilExpiry() {
+    // Given a cached slot
+    cache.put(slotId, new SlotResponseCache.CachedSlot(3, new byte[0]), cache.invalidationCount());
+
+    // Then it is served with an ETag derived from its version
+    Assertions.assertEquals("\"3\"", cache.get(slotId).orElseThrow().etag());
+    // And no longer once the TTL has passed
+    now.addAndGet(2_000);
+    Assertions.assertTrue(cache.get(slotId).isEmpty());
+  }
+
+  @Test
+  void testOlderVersionDoesNotReplaceNewerOne() {
+    // Given a cached slot at version 5
+    cache.put(slotId, new SlotResponseCache.CachedSlot(5, new byte[0]), cache.invalidationCount());
+
+    // When a slower read caches version 4
+    cache.put(slotId, new SlotResponseCache.CachedSlot(4, new byte[0]), cache.invalidationCount());
+
+    // Then version 5 is kept
+    Assertions.assertEquals(5, cache.get(slotId).orElseThrow().version());
+  }
+
+  @Test
+  void testInvalidateAndEviction() {
+    // Given three slots cached in a cache holding two
+    cache.put("a", new SlotResponseCache.CachedSlot(1, new byte[0]), cache.invalidationCount());
+    cache.put("b", new SlotResponseCache.CachedSlot(1, new byte[0]), cache.invalidationCount());
+    cache.put("c", new SlotResponseCache.CachedSlot(1, new byte[0]), cache.invalidationCount());
+
+    // Then the least recently used one was evicted
+    Assertions.assertEquals(2, cache.size());
+    Assertions.assertTrue(cache.get("a").isEmpty());
+
+    // And an invalidated slot is gone
+    cache.invalidate("b");
+    Assertions.assertTrue(cache.get("b").isEmpty());
+  }
+
+  @Test
+  void testReadStartedBeforeInvalidationIsNotCached() {
+    // Given a cached slot at version 5 and a read of it starting
+    cache.put(slotId, new SlotResponseCache.CachedSlot(5, new byte[0]), cache.invalidationCount());
+    var readStartedAt = cache.invalidationCount();
+
+    // When the slot changes and is invalidated before the read returns
+    // version 5 again
+    cache.invalidate(slotId);
+    cache.put(slotId, new SlotResponseCache.CachedSlot(5, new byte[0]), readStartedAt);
+
+    // Then the stale version is not cached
+    Assertions.assertTrue(cache.get(slotId).isEmpty());
+    // But a read started after the invalidation is
+    cache.put(slotId, new SlotResponseCache.CachedSlot(6, new byte[0]), cache.invalidationCount());
+    Assertions.assertEquals(6, cache.get(slotId).orElseThrow().version());
+  }
+
+  @Test
+  void testStalePutIsRefusedAfterInvalidationIsEvicted() {
+    // Given a read of a slot starting, after which the slot and more slots
+    // than the cache holds are invalidated
+    var readStartedAt = cache.invalidationCount();
+    cache.invalidate(slotId);
+    cache.invalidate("a");
+    cache.invalidate("b");
+
+    // When the read returns
+    cache.put(slotId, new SlotResponseCache.CachedSlot(5, new byte[0]), readStartedAt);
+
+    // Then it is still not cached
+    Assertions.assertTrue(cache.get(slotId).isEmpty());
+  }
+}
@@ -0,0 +1,57 @@
+package io.example.application;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import akka.Done;
+import akka.javasdk.testkit.EventSourcedTestKit;
+import io.example.domain.Participant;
+import io.example.domain.Participant.ParticipantType;
+
+public class SlotShardEntityTest {
+
+  private final String slotId = "2025-08-08-09";
+  private final Participant instructor = new Participant("mr-delgado", ParticipantType.INSTRUCTOR);
+
+  @Test
+  void testParticipantCanOnlyBeClaimedByOneBooking() {
+    var testKit = EventSourcedTestKit.of(SlotShardEntity.shardId(slotId, ParticipantType.INSTRUCTOR),
+        SlotShardEntity::new);
+
+    // Given an available instructor in the instructor shard
+    testKit.method(SlotShardEntity::markAvailable).invoke(instructor.id());
+
+    // When two bookings claim them
+    var firstClaim = testKit.method(SlotShardEntity::claim)
+        .invoke(new SlotShardEntity.Claim(instructor.id(), "booking-1"));
+    var secondClaim = testKit.method(SlotShardEntity::claim)
+        .invoke(new SlotShardEntity.Claim(instructor.id(), "booking-2"));
+
+    // Then only the first one succeeds
+    Assertions.assertEquals(Done.getInstance(), firstClaim.getReply());
+    Assertions.assertEquals(BookingSlotEntity.PARTICIPANTS_UNAVAILABLE, secondClaim.getError());
+    assertThat(testKit.getState().available()).isEmpty();
+  }
+
+  @Test
+  void testReleaseMakesParticipantAvailableAgain() {
+    var testKit = EventSourcedTestKit.of(SlotShardEntity.shardId(slotId, ParticipantType.INSTRUCTOR),
+        SlotShardEntity::new);
+
+    // Given an instructor claimed by a booking
+    testKit.method(SlotShardEntity::markAvailable).invoke(instructor.id());
+    var claim = new SlotShardEntity.Claim(instructor.id(), "booking-1");
+    testKit.method(SlotShardEntity::claim).invoke(claim);
+
+    // When the claim is released, twice
+    testKit.method(SlotShardEntity::release).invoke(claim);
+    var secondRelease = testKit.method(SlotShardEntity::release).invoke(claim);
+
+    // Then the instructor is available again and the retry persisted nothing
+    assertThat(testKit.getState().available()).containsExactly(instructor);
+    assertThat(testKit.getState().bookings()).isEmpty();
+    assertThat(secondRelease.getAllEvents()).isEmpty();
+  }
+}
@@ -0,0 +1,35 @@
+package io.example.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import akka.javasdk.JsonSupport;
+import io.example.domain.Participant.ParticipantType;
+
+public class CompactEventMigrationTest {
+
+  @Test
+  public void legacyEventIsReadWithCompactNames() throws Exception {
+    // Given an event persisted with full field names
+    var mapper = JsonSupport.getObjectMapper();
+    var legacy = mapper.readTree("""
+        {"slotId":"2025-08-08-09","participantId":"liam","participantType":"STUDENT","bookingId":"b1"}
+        """);
+
+    // When migrating it from version 0
+    var migrated = new CompactEventMigration().transform(0, legacy);
+
+    // Then it reads as the current event
+    Assertions.assertEquals(
+        new BookingEvent.ParticipantBooked("2025-08-08-09", "liam", ParticipantType.STUDENT, "b1"),
+        mapper.treeToValue(migrated, BookingEvent.ParticipantBooked.class));
+  }
+
+  @Test
+  public void eventIsWrittenWithCompactNames() throws Exception {
+    var event = new BookingEvent.ParticipantMarkedAvailable("2025-08-08-09", "liam", ParticipantType.STUDENT);
+
+    Assertions.assertEquals("{\"s\":\"2025-08-08-09\",\"p\":\"liam\",\"t\":\"STUDENT\"}",
+        JsonSupport.getObjectMapper().writeValueAsString(event));
+  }
+}
@@ -0,0 +1,56 @@
+package io.example.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class ParticipantCalendarTest {
+
+  private final ParticipantCalendar.Entry nine =
+      new ParticipantCalendar.Entry("2025-08-08-09", "b1", Instant.parse("2025-08-08T09:00:00Z"));
+  private final ParticipantCalendar.Entry ten =
+      new ParticipantCalendar.Entry("2025-08-08-10", "b2", Instant.parse("2025-08-08T10:00:00Z"));
+  private final ParticipantCalendar.Entry noon =
+      new ParticipantCalendar.Entry("2025-08-08-12", "b3", Instant.parse("2025-08-08T12:00:00Z"));
+
+  @Test
+  public void entriesAreKeptInStartOrder() {
+    // Given entries added out of order
+    var calendar = ParticipantCalendar.empty().with(noon).with(nine).with(ten);
+
+    // Then they are sorted by start time
+    assertThat(calendar.entries()).containsExactly(nine, ten, noon);
+  }
+
+  @Test
+  public void betweenReturnsEntriesOverlappingRange() {
+    var calendar = ParticipantCalendar.empty().with(nine).with(ten).with(noon);
+
+    // When reading from 09:30 to 11:00
+    var entries = calendar.between(Instant.parse("2025-08-08T09:30:00Z"), Instant.parse("2025-08-08T11:00:00Z"));
+
+    // Then the 09:00 slot, still running at 09:30, and the 10:00 slot match
+    assertThat(entries).containsExactly(nine, ten);
+  }
+
+  @Test
+  public void conflictsIgnoreTheSameSlot() {
+    // Given a participant booked at 09:00
+    var calendar = ParticipantCalendar.empty().with(nine);
+
+    // Then booking another slot at 09:00 conflicts
+    assertThat(calendar.conflictsWith("2025-08-08-09-b", nine.start())).containsExactly(nine);
+    // And the same slot or the next hour does not
+    assertThat(calendar.conflictsWith(nine.slotId(), nine.start())).isEmpty();
+    assertThat(calendar.conflictsWith(ten.slotId(), ten.start())).isEmpty();
+  }
+
+  @Test
+  public void withoutRemovesOnlyTheMatchingBooking() {
+    var calendar = ParticipantCalendar.empty().with(nine).with(ten);
+
+    assertThat(calendar.without(nine.slotId(), "other").entries()).containsExactly(nine, ten);
+    assertThat(calendar.without(nine.slotId(), nine.bookingId()).entries()).containsExactly(ten);
+  }
+}
@@ -0,0 +1,107 @@
+package io.example.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PersistentHashMapTest {
+
+  // A key whose hash code is chosen by the test, to force trie collisions
+  private record CollidingKey(int hash, String id) {
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  @Test
+  void testPlusDoesNotModifyPreviousVersion() {
+    // Given a map with a single entry
+    PersistentHashMap<String, Integer> original = PersistentHashMap.<String, Integer>empty().plus("a", 1);
+
+    // When adding and replacing entries
+    var updated = original.plus("b", 2).plus("a", 3);
+
+    // Then the original version is unchanged
+    Assertions.assertEquals(1, original.size());
+    Assertions.assertEquals(1, original.get("a"));
+    // And the new version holds the updates
+    Assertions.assertEquals(2, updated.size());
+    Assertions.assertEquals(3, updated.get("a"));
+    Assertions.assertEquals(2, updated.get("b"));
+  }
+
+  @Test
+  void testNoOpUpdatesReturnSameInstance() {
+    // Given a map with a single entry
+    PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().plus("a", 1);
+
+    // When re-adding the same mapping or removing an absent key
+    // Then the very same instance is returned
+    Assertions.assertSame(map, map.plus("a", 1));
+    Assertions.assertSame(map, map.minus("absent"));
+  }
+
+  @Test
+  void testCollidingKeysAreStoredAndRemovedIndependently() {
+    // Given keys sharing the exact same hash code
+    var first = new CollidingKey(7, "first");
+    var second = new CollidingKey(7, "second");
+    var third = new CollidingKey(7, "third");
+    PersistentHashMap<CollidingKey, String> map = PersistentHashMap.<CollidingKey, String>empty()
+        .plus(first, "1").plus(second, "2").plus(third, "3");
+
+    // When removing one of them
+    var updated = map.minus(second);
+
+    // Then the others remain reachable
+    Assertions.assertEquals(2, updated.size());
+    Assertions.assertEquals("1", updated.get(first));
+    Assertions.assertEquals("3", updated.get(third));
+    Assertions.assertFalse(updated.containsKey(second));
+  }
+
+  @Test
+  void testBehavesLikeHashMapUnderRandomUpdates() {
+    var random = new Random(42);
+    Map<Object, Integer> expected = new HashMap<>();
+    PersistentHashMap<Object, Integer> actual = PersistentHashMap.empty();
+
+    // Given a random mix of puts and removes over plain and colliding keys
+    for (int i = 0; i < 20_000; i++) {
+      Object key = random.nextBoolean()
+          ? Integer.valueOf(random.nextInt(500))
+          : new CollidingKey(random.nextInt(20), String.valueOf(random.nextInt(500)));
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        actual = actual.minus(key);
+      } else {
+        int value = random.nextInt(10);
+        expected.put(key, value);
+        actual = actual.plus(key, value);
+      }
+    }
+
+    // Then size, lookups and iteration agree with java.util.HashMap
+    Map<Object, Integer> iterated = new HashMap<>();
+    actual.forEach(iterated::put);
+    Assertions.assertEquals(expected.size(), actual.size());
+    assertThat(iterated).isEqualTo(expected);
+  }
+
+  @Test
+  void testPersistentHashSetIsReadableAsSet() {
+    // Given a persistent set built from plus/minus operations
+    PersistentHashSet<String> set = PersistentHashSet.<String>empty().plus("a").plus("b").plus("c").minus("b");
+
+    // Then it behaves as an immutable java.util.Set
+    assertThat(set).containsExactlyInAnyOrder("a", "c");
+    Assertions.assertEquals(Set.of("a", "c"), set);
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> set.add("d"));
+  }
+}
@@ -0,0 +1,28 @@
+package io.example.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class SlotTimeTest {
+
+  @Test
+  public void parsesStartTimeFromSlotId() {
+    // Given slot IDs following the date/hour convention
+    // When parsing them
+    // Then the start time is the hour in UTC
+    assertThat(SlotTime.startOf("2025-08-08-09")).contains(Instant.parse("2025-08-08T09:00:00Z"));
+    assertThat(SlotTime.startOf("2025-08-08-09-b")).contains(Instant.parse("2025-08-08T09:00:00Z"));
+  }
+
+  @Test
+  public void rejectsSlotIdsWithoutStartTime() {
+    // Given slot IDs that do not encode a valid date and hour
+    // When parsing them
+    // Then no start time is returned
+    assertThat(SlotTime.startOf("bestslot")).isEmpty();
+    assertThat(SlotTime.startOf("2025-13-08-09")).isEmpty();
+    assertThat(SlotTime.startOf("2025-08-08-091")).isEmpty();
+  }
+}
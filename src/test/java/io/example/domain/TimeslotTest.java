@@ -0,0 +1,133 @@
+package io.example.domain;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.Timeslot.Booking;
+
+public class TimeslotTest {
+
+  private static final String SLOT_ID = "2025-08-08-09";
+
+  private final Participant student = new Participant("liam", ParticipantType.STUDENT);
+  private final Participant instructor = new Participant("mr-delgado", ParticipantType.INSTRUCTOR);
+  private final Participant aircraft = new Participant("piper-pa-28", ParticipantType.AIRCRAFT);
+
+  private Timeslot available(Participant... participants) {
+    var slot = Timeslot.empty();
+    for (Participant participant : participants) {
+      slot = slot.apply(
+          new BookingEvent.ParticipantMarkedAvailable(SLOT_ID, participant.id(), participant.participantType()));
+    }
+    return slot;
+  }
+
+  private Timeslot book(Timeslot slot, String bookingId, Participant... participants) {
+    for (Participant participant : participants) {
+      slot = slot.apply(
+          new BookingEvent.ParticipantBooked(SLOT_ID, participant.id(), participant.participantType(), bookingId));
+    }
+    return slot;
+  }
+
+  @Test
+  void testBookMovesParticipantsFromAvailableToBookings() {
+    // Given an available student, instructor and aircraft
+    var slot = available(student, instructor, aircraft);
+
+    // When booking them
+    var booked = book(slot, "b1", student, instructor, aircraft);
+
+    // Then they are booked and no longer available
+    assertThat(booked.available()).isEmpty();
+    assertThat(booked.bookings()).containsExactlyInAnyOrder(
+        new Booking(student, "b1"), new Booking(instructor, "b1"), new Booking(aircraft, "b1"));
+    Assertions.assertTrue(booked.isBooked(student.id(), ParticipantType.STUDENT));
+    Assertions.assertFalse(booked.isWaiting(student.id(), ParticipantType.STUDENT));
+  }
+
+  @Test
+  void testFindBookingReturnsOnlyThatBooking() {
+    // Given a slot holding two bookings
+    var other = new Participant("emma", ParticipantType.STUDENT);
+    var slot = book(available(student, instructor, aircraft, other), "b1", student, instructor, aircraft);
+    slot = book(slot, "b2", other);
+
+    // When looking up each booking
+    // Then only its own entries are returned
+    assertThat(slot.findBooking("b1")).containsExactlyInAnyOrder(
+        new Booking(student, "b1"), new Booking(instructor, "b1"), new Booking(aircraft, "b1"));
+    assertThat(slot.findBooking("b2")).containsExactly(new Booking(other, "b2"));
+    assertThat(slot.findBooking("unknown")).isEmpty();
+  }
+
+  @Test
+  void testCancelRemovesBookingWithoutRestoringAvailability() {
+    // Given a slot with two bookings
+    var other = new Participant("emma", ParticipantType.STUDENT);
+    var slot = book(available(student, instructor, aircraft, other), "b1", student, instructor, aircraft);
+    slot = book(slot, "b2", other);
+
+    // When canceling one of them
+    var canceled = slot.cancelBooking("b1");
+
+    // Then its participants are neither booked nor available
+    assertThat(canceled.findBooking("b1")).isEmpty();
+    assertThat(canceled.bookings()).containsExactly(new Booking(other, "b2"));
+    assertThat(canceled.available()).isEmpty();
+    Assertions.assertFalse(canceled.isBooked(student.id(), ParticipantType.STUDENT));
+    // And canceling an unknown booking returns the same slot
+    Assertions.assertSame(canceled, canceled.cancelBooking("unknown"));
+  }
+
+  @Test
+  void testApplyingEventsDoesNotModifyPreviousState() {
+    // Given an available and a booked version of a slot
+    var slot = available(student, instructor, aircraft);
+    var booked = book(slot, "b1", student, instructor, aircraft);
+
+    // When canceling the booking and changing availability
+    var canceled = booked.cancelBooking("b1");
+    canceled.apply(new BookingEvent.ParticipantMarkedAvailable(SLOT_ID, "emma", ParticipantType.STUDENT));
+
+    // Then the earlier versions are unchanged
+    Assertions.assertEquals(Set.of(student, instructor, aircraft), slot.available());
+    assertThat(slot.bookings()).isEmpty();
+    assertThat(booked.findBooking("b1")).hasSize(3);
+    assertThat(booked.available()).isEmpty();
+  }
+
+  @Test
+  void testDeserializedSlotIsIndexed() {
+    // Given a slot created from its serialized sets
+    var slot = new Timeslot(Set.of(new Booking(student, "b1"), new Booking(aircraft, "b1")), Set.of(instructor));
+
+    // When looking up and canceling the booking
+    // Then the indexes are populated
+    assertThat(slot.findBooking("b1")).hasSize(2);
+    Assertions.assertEquals(new Timeslot(Set.of(), Set.of(instructor)), slot.cancelBooking("b1"));
+    Assertions.assertEquals(List.of(), slot.cancelBooking("b1").findBooking("b1"));
+  }
+
+  @Test
+  void testShardingEnabledIsKeptAcrossChanges() {
+    // Given a sharded slot
+    var slot = Timeslot.empty().apply(new BookingEvent.ShardingEnabled(SLOT_ID));
+
+    // When booking and canceling in it
+    var booked = book(slot, "b1", student, instructor, aircraft);
+    var canceled = booked.cancelBooking("b1");
+
+    // Then it stays sharded, and differs from an unsharded slot
+    Assertions.assertTrue(booked.isSharded());
+    Assertions.assertTrue(canceled.isSharded());
+    Assertions.assertFalse(Timeslot.empty().isSharded());
+    Assertions.assertNotEquals(Timeslot.empty(), canceled);
+    Assertions.assertEquals(new Timeslot(Set.of(), Set.of(), true), canceled);
+  }
+}